@@ -58,6 +58,8 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 	
 	needsReload: true,
 	api: null,
+	gridPageSize: 200,
+	gridCursor: null,
 	
 	getApiInstance: function() {
 		var me = this;
@@ -72,6 +74,9 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		me.initCxm();
 		
 		me.on('activate', me.onActivate, me);
+		me.onPushMessage('gridTasksChanged', function(msg) {
+			me.patchTasks(msg.payload);
+		});
 		
 		me.setToolbar(Ext.create({
 			xtype: 'toolbar',
@@ -187,9 +192,23 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 					model: 'Sonicle.webtop.tasks.model.GridTask',
 					proxy: WTF.apiProxy(me.ID, 'ManageGridTasks', 'tasks', {
 						extraParams: {
-							query: null
+							query: null,
+							pageSize: me.gridPageSize
 						}
-					})
+					}),
+					listeners: {
+						load: function(s, recs, success) {
+							// Search results are ranked by relevance and not paged
+							var paged = Ext.isEmpty(s.getProxy().getExtraParams().query),
+									last;
+							if (!success) return;
+							me.getMainComponent().lookupReference('tbmore').setHidden(!paged || !Ext.isArray(recs) || (recs.length < me.gridPageSize));
+							// Grid columns sort locally: seek cursor comes from the last row 
+							// in server order, not from the last row of the store
+							last = (paged && Ext.isArray(recs) && (recs.length > 0)) ? recs[recs.length-1] : null;
+							me.gridCursor = last ? {subject: last.get('subject'), taskId: last.getId()} : null;
+						}
+					}
 				},
 				viewConfig: {
 					getRowClass: function (rec, indx) {
@@ -248,12 +267,22 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 					header: me.res('gptasks.category.lbl'),
 					width: 150
 				}],
+				bbar: {
+					xtype: 'toolbar',
+					reference: 'tbmore',
+					hidden: true,
+					items: [
+						'->',
+						me.getAct('loadMoreTasks')
+					]
+				},
 				listeners: {
 					selectionchange: function() {
 						me.updateDisabled('showTask');
 						me.updateDisabled('printTask');
 						me.updateDisabled('copyTask');
 						me.updateDisabled('moveTask');
+						me.updateDisabled('completeTask');
 						me.updateDisabled('deleteTask');
 					},
 					rowdblclick: function(s, rec) {
@@ -360,6 +389,12 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 				me.reloadTasks();
 			}
 		});
+		me.addAct('loadMoreTasks', {
+			tooltip: null,
+			handler: function() {
+				me.loadMoreTasks();
+			}
+		});
 		me.addAct('editSharing', {
 			text: WT.res('sharing.tit'),
 			tooltip: null,
@@ -404,6 +439,20 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 				if (node) me.deleteCategoryUI(node);
 			}
 		});
+		me.addAct('exportCategory', {
+			tooltip: null,
+			handler: function() {
+				var node = me.getSelectedFolder(me.trFolders());
+				if (node) me.exportTasks([node.get('_catId')], node.get('text'));
+			}
+		});
+		me.addAct('importCategory', {
+			tooltip: null,
+			handler: function() {
+				var node = me.getSelectedFolder(me.trFolders());
+				if (node) me.importTasks(node.get('_catId'));
+			}
+		});
 		me.addAct('categoryColor', {
 			text: me.res('mni-categoryColor.lbl'),
 			tooltip: null,
@@ -544,6 +593,13 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 				me.moveTasksSel(false, me.getSelectedTasks());
 			}
 		});
+		me.addAct('completeTask', {
+			tooltip: null,
+			handler: function() {
+				var sel = me.getSelectedTasks();
+				if (sel.length > 0) me.completeTaskSel(sel);
+			}
+		});
 		me.addAct('printTask', {
 			text: WT.res('act-print.lbl'),
 			tooltip: null,
@@ -619,6 +675,8 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 				me.getAct('editCategory'),
 				me.getAct('deleteCategory'),
 				me.getAct('addCategory'),
+				me.getAct('importCategory'),
+				me.getAct('exportCategory'),
 				'-',
 				{
 					text: me.res('mni-viewFolder.lbl'),
@@ -682,6 +740,7 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 						]
 					}
 				},
+				me.getAct('completeTask'),
 				me.getAct('printTask'),
 				'-',
 				me.getAct('deleteTask')
@@ -702,6 +761,7 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		me.updateDisabled('printTask');
 		me.updateDisabled('copyTask');
 		me.updateDisabled('moveTask');
+		me.updateDisabled('completeTask');
 		me.updateDisabled('deleteTask');
 	},
 	
@@ -737,6 +797,101 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		}
 	},
 	
+	loadMoreTasks: function() {
+		var me = this,
+				sto = me.gpTasks().getStore();
+		
+		if (me.gridCursor) {
+			sto.load({
+				addRecords: true,
+				params: {
+					cursor: Ext.JSON.encode(me.gridCursor)
+				}
+			});
+		}
+	},
+	
+	/**
+	 * Applies row-level changes pushed by the server to the loaded tasks, 
+	 * falling back to a full reload when they cannot be applied in place.
+	 */
+	patchTasks: function(delta) {
+		var me = this,
+				sto, paged, more, uncertain, rec, idx;
+		
+		if (!delta) return;
+		if (delta.reload || !me.isActive()) {
+			me.reloadTasks();
+			return;
+		}
+		sto = me.gpTasks().getStore();
+		if (sto.isLoading()) {
+			me.reloadTasks();
+			return;
+		}
+		
+		// Search results are ranked by relevance: new rows are not added to them
+		paged = Ext.isEmpty(sto.getProxy().getExtraParams().query);
+		more = !me.getMainComponent().lookupReference('tbmore').isHidden();
+		Ext.iterate(delta.removals || [], function(id) {
+			rec = sto.getById(id);
+			if (rec) sto.remove(rec);
+		});
+		Ext.iterate(delta.upserts || [], function(data) {
+			rec = sto.getById(data.taskId);
+			if (rec) {
+				if (!paged || (rec.get('subject') === data.subject)) {
+					rec.set(data, {dirty: false});
+					return;
+				}
+				// Subject changed: row needs to be placed again
+				sto.remove(rec);
+			} else if (!paged) {
+				return;
+			}
+			
+			// Keeps server ordering: rows beyond loaded pages will come along with them
+			idx = me.findTaskInsertIndex(sto, data);
+			if (idx === null) {
+				uncertain = true;
+				return false;
+			}
+			if (idx === -1) {
+				if (more) return;
+				idx = sto.getCount();
+			}
+			sto.insert(idx, sto.getModel().loadData(data));
+		});
+		if (uncertain) me.reloadTasks();
+	},
+	
+	/**
+	 * @private
+	 * Finds where a new row goes, according to server ordering (subject, 
+	 * then ID). Subjects are compared case-insensitively using locale 
+	 * collation, like the database does; when two subjects differ only in 
+	 * case or accents, their relative order cannot be told client-side.
+	 * @param {Ext.data.Store} sto The grid store.
+	 * @param {Object} data The row data.
+	 * @return {Number} The index, -1 if the row goes after the last one or null if uncertain.
+	 */
+	findTaskInsertIndex: function(sto, data) {
+		var subject = data.subject || '',
+				uncertain = false,
+				idx;
+		
+		idx = sto.findBy(function(r) {
+			var rsubject = r.get('subject') || '',
+					cmp = rsubject.localeCompare(subject, undefined, {sensitivity: 'base'});
+			if ((cmp === 0) && (rsubject !== subject)) {
+				uncertain = true;
+				return true;
+			}
+			return (cmp > 0) || ((cmp === 0) && (r.getId() > data.taskId));
+		});
+		return uncertain ? null : idx;
+	},
+	
 	getSelectedTask: function(forceSingle) {
 		if (forceSingle === undefined) forceSingle = true;
 		var sel = this.getSelectedTasks();
@@ -841,21 +996,12 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 	},
 	
 	addTaskUI: function(ownerId, categoryId) {
-		var me = this;
-		me.addTask(ownerId, categoryId, {
-			callback: function(success) {
-				if(success) me.reloadTasks();
-			}
-		});
+		// Grid is patched by changes pushed from the server
+		this.addTask(ownerId, categoryId);
 	},
 	
 	openTaskUI: function(edit, taskId) {
-		var me = this;
-		me.openTask(edit, taskId, {
-			callback: function(success) {
-				if(success && edit) me.reloadTasks();
-			}
-		});
+		this.openTask(edit, taskId);
 	},
 	
 	deleteTaskSel: function(sel) {
@@ -882,25 +1028,29 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		});
 	},
 	
+	completeTaskSel: function(sel) {
+		var me = this;
+		me.updateTasksFields(me.selectionIds(sel), {
+			status: 'completed',
+			percentage: 100
+		});
+	},
+	
 	moveTasksSel: function(copy, sel) {
 		var me = this,
-				id = sel[0].get('taskId'),
+				ids = me.selectionIds(sel),
 				pid = sel[0].get('_profileId'),
 				cat = sel[0].get('categoryId');
 		
-		me.confirmMoveTask(copy, id, pid, cat, {
-			callback: function() {
-				me.reloadTasks();
-			}
-		});
+		me.confirmMoveTask(copy, ids, pid, cat);
 	},
 	
-	confirmMoveTask: function(copy, id, ownerId, catId, opts) {
+	confirmMoveTask: function(copy, ids, ownerId, catId, opts) {
 		var me = this,
 				vct = me.createCategoryChooser(copy, ownerId, catId);
 		
 		vct.getView().on('viewok', function(s) {
-			me.moveTask(copy, id, s.getVMData().categoryId, opts);
+			me.moveTasks(copy, ids, s.getVMData().categoryId, opts);
 		});
 		vct.show();
 	},
@@ -911,6 +1061,40 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		Sonicle.URLMgr.openFile(url, {filename: 'tasks-detail', newWindow: true});
 	},
 	
+	exportTasks: function(categoryIds, filename) {
+		var me = this, url;
+		url = WTF.processBinUrl(me.ID, 'ExportTasks', {categoryIds: WTU.arrayAsParam(categoryIds), filename: filename});
+		Sonicle.URLMgr.openFile(url, {filename: filename});
+	},
+	
+	importTasks: function(categoryId) {
+		var me = this,
+				input = document.createElement('input');
+		
+		input.type = 'file';
+		input.accept = '.ics,text/calendar';
+		input.onchange = function() {
+			if (input.files.length === 0) return;
+			// File content is sent as raw body: the server parses it as a stream
+			Ext.Ajax.request({
+				url: WTF.processBinUrl(me.ID, 'ImportTasks', {categoryId: categoryId}),
+				method: 'POST',
+				rawData: input.files[0],
+				headers: {'Content-Type': 'text/calendar'},
+				callback: function(opts, success, resp) {
+					var json = success ? Ext.decode(resp.responseText, true) : null;
+					if (json && json.success) {
+						me.reloadTasks();
+						if (json.data.failed > 0) WT.warn(me.res('category.import.failed', json.data.inserted + json.data.updated, json.data.failed));
+					} else {
+						WT.warn(json ? json.message : resp.statusText);
+					}
+				}
+			});
+		};
+		input.click();
+	},
+	
 	printTaskSel: function(sel) {
 		var me = this;
 		me.printTasksDetail(me.selectionIds(sel));
@@ -1076,7 +1260,7 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		});
 	},
 	
-	moveTask: function(copy, taskId, targetCategoryId, opts) {
+	moveTasks: function(copy, taskIds, targetCategoryId, opts) {
 		opts = opts || {};
 		var me = this;
 		
@@ -1084,7 +1268,7 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 			params: {
 				crud: 'move',
 				copy: copy,
-				id: taskId,
+				ids: WTU.arrayAsParam(taskIds),
 				targetCategoryId: targetCategoryId
 			},
 			callback: function(success, json) {
@@ -1093,6 +1277,20 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		});
 	},
 	
+	updateTasksFields: function(taskIds, fields, opts) {
+		opts = opts || {};
+		var me = this;
+		
+		WT.ajaxReq(me.ID, 'UpdateTasksFields', {
+			params: Ext.apply({
+				ids: WTU.arrayAsParam(taskIds)
+			}, fields),
+			callback: function(success, json) {
+				Ext.callback(opts.callback, opts.scope || me, [success, json]);
+			}
+		});
+	},
+	
 	selectionIds: function(sel) {
 		var ids = [];
 		Ext.iterate(sel, function(rec) {
@@ -1127,20 +1325,38 @@ Ext.define('Sonicle.webtop.tasks.Service', {
 		
 		switch(action) {
 			case 'showTask':
-			case 'copyTask':
 				sel = me.getSelectedTasks();
 				if(sel.length === 1) {
 					return false;
 				} else {
 					return true;
 				}
+			case 'copyTask':
+				sel = me.getSelectedTasks();
+				if(sel.length > 0) {
+					return false;
+				} else {
+					return true;
+				}
 			case 'moveTask':
 				sel = me.getSelectedTasks();
-				if(sel.length === 1) {
-					er = me.toRightsObj(sel[0].get('_erights'));
-					return !er.DELETE;
+				if(sel.length === 0) {
+					return true;
 				} else {
+					for(var i=0; i<sel.length; i++) {
+						if(!me.toRightsObj(sel[i].get('_erights')).DELETE) return true;
+					}
+					return false;
+				}
+			case 'completeTask':
+				sel = me.getSelectedTasks();
+				if(sel.length === 0) {
 					return true;
+				} else {
+					for(var i=0; i<sel.length; i++) {
+						if(!me.toRightsObj(sel[i].get('_erights')).UPDATE) return true;
+					}
+					return false;
 				}
 			case 'deleteTask':
 				sel = me.getSelectedTasks();
@@ -39,6 +39,7 @@ Ext.define('Sonicle.webtop.tasks.view.Task', {
 		'WTA.ux.data.ValueModel',
 		'WTA.ux.field.SuggestCombo',
 		'Sonicle.webtop.tasks.store.Importance',
+		'Sonicle.webtop.tasks.store.Recurrence',
 		'Sonicle.webtop.tasks.store.Status',
 		'Sonicle.webtop.tasks.model.Task',
 		'Sonicle.webtop.tasks.model.CategoryLkp'
@@ -201,6 +202,23 @@ Ext.define('Sonicle.webtop.tasks.view.Task', {
 				fieldLabel: me.mys.res('task.fld-description.lbl'),
 				height: 100,
 				anchor: '100%'
+			}, {
+				xtype: 'tagfield',
+				bind: '{record.tags}',
+				store: {
+					autoLoad: true,
+					model: 'WTA.model.Simple',
+					proxy: WTF.proxy(me.mys.ID, 'LookupTags', 'tags')
+				},
+				valueField: 'id',
+				displayField: 'desc',
+				queryMode: 'local',
+				forceSelection: false,
+				createNewOnEnter: true,
+				createNewOnBlur: true,
+				filterPickList: true,
+				fieldLabel: me.mys.res('task.fld-tags.lbl'),
+				anchor: '100%'
 			}, {
 				xtype: 'formseparator'
 			}, {
@@ -291,6 +309,20 @@ Ext.define('Sonicle.webtop.tasks.view.Task', {
 						}
 					}]
 				}]
+			}, {
+				xtype: 'wtform',
+				items: [
+					WTF.lookupCombo('id', 'desc', {
+						bind: '{record.recurrenceRule}',
+						store: Ext.create(me.mys.preNs('store.Recurrence'), {
+							autoLoad: true
+						}),
+						editable: true,
+						forceSelection: false,
+						fieldLabel: me.mys.res('task.fld-recurrence.lbl'),
+						anchor: '100%'
+					})
+				]
 			}, {
 				xtype: 'formseparator'
 			}, {
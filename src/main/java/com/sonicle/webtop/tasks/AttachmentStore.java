@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * Disk-backed storage of task attachment payloads, one file for each 
+ * attachment (spread into sub-folders by ID prefix). Uploads are streamed 
+ * into a temporary file through a small fixed buffer, and then moved in 
+ * place atomically: a partially written file is never visible. Downloads 
+ * are served by {@link FileChannel#transferTo}, letting the OS copy data 
+ * without pulling the whole payload into the heap.
+ */
+public class AttachmentStore {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final Pattern ID_PATTERN = Pattern.compile("^[0-9a-f\\-]{36}$");
+	private final Path root;
+	
+	public AttachmentStore(String rootPath) {
+		this.root = Paths.get(rootPath);
+	}
+	
+	/**
+	 * Streams passed data into the store.
+	 * @param attachmentId The attachment ID.
+	 * @param is The data to write.
+	 * @param maxSize Max number of bytes accepted.
+	 * @return The number of bytes written.
+	 * @throws IOException 
+	 * @throws SizeLimitExceededException If data exceeds the max size (nothing is stored).
+	 */
+	public long write(String attachmentId, InputStream is, long maxSize) throws IOException {
+		Path target = resolve(attachmentId);
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), attachmentId, ".part");
+		boolean moved = false;
+		
+		try {
+			long size = 0;
+			OutputStream os = Files.newOutputStream(temp);
+			try {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int read;
+				while ((read = is.read(buffer)) != -1) {
+					size += read;
+					if (size > maxSize) throw new SizeLimitExceededException(maxSize);
+					os.write(buffer, 0, read);
+				}
+			} finally {
+				os.close();
+			}
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+			moved = true;
+			return size;
+		
+		} finally {
+			if (!moved) Files.deleteIfExists(temp);
+		}
+	}
+	
+	/**
+	 * Copies the whole payload of an attachment into passed channel.
+	 * @param attachmentId The attachment ID.
+	 * @param target The destination channel (blocking).
+	 * @return The number of bytes transferred.
+	 * @throws IOException 
+	 */
+	public long transferTo(String attachmentId, WritableByteChannel target) throws IOException {
+		FileChannel fc = FileChannel.open(resolve(attachmentId), StandardOpenOption.READ);
+		try {
+			long size = fc.size();
+			long position = 0;
+			while (position < size) {
+				position += fc.transferTo(position, size - position, target);
+			}
+			return position;
+		
+		} finally {
+			fc.close();
+		}
+	}
+	
+	/**
+	 * Removes the payload of an attachment, if present.
+	 * @param attachmentId The attachment ID.
+	 * @return True if a file has been actually removed.
+	 * @throws IOException 
+	 */
+	public boolean delete(String attachmentId) throws IOException {
+		return Files.deleteIfExists(resolve(attachmentId));
+	}
+	
+	private Path resolve(String attachmentId) {
+		if ((attachmentId == null) || !ID_PATTERN.matcher(attachmentId).matches()) {
+			throw new IllegalArgumentException("Invalid attachment ID [" + attachmentId + "]");
+		}
+		return root.resolve(attachmentId.substring(0, 2)).resolve(attachmentId);
+	}
+	
+	public static class SizeLimitExceededException extends IOException {
+		private final long maxSize;
+		
+		public SizeLimitExceededException(long maxSize) {
+			super("Attachment exceeds the max allowed size [" + maxSize + "]");
+			this.maxSize = maxSize;
+		}
+		
+		public long getMaxSize() {
+			return maxSize;
+		}
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import com.sonicle.webtop.core.app.WT;
+import com.sonicle.webtop.core.sdk.WTException;
+import com.sonicle.webtop.tasks.model.TaskEx;
+import com.sonicle.webtop.tasks.event.CategoryChanged;
+import com.sonicle.webtop.tasks.event.TaskDeleted;
+import com.sonicle.webtop.tasks.event.TaskEvent;
+import com.sonicle.webtop.tasks.event.TaskEventBus;
+import com.sonicle.webtop.tasks.event.TaskEventListener;
+import com.sonicle.webtop.tasks.event.TaskMoved;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+
+/**
+ * Keeps the tasks grids of the open sessions up-to-date, pushing row-level 
+ * changes instead of having clients reloading them. A single bus subscription 
+ * is held while at least one {@link Viewer} is registered: rows affected by 
+ * an event are loaded once and then handed to every session viewing the 
+ * category, instead of having each session querying them on its own.
+ * Rows leaving a category are only known through {@link TaskMoved}: every 
+ * path changing the category of a task (moves as well as form updates) 
+ * must publish it, otherwise grids viewing the source keep stale rows.
+ */
+public class GridPushHub {
+	private static final Logger logger = WT.getLogger(GridPushHub.class);
+	private static final GridPushHub INSTANCE = new GridPushHub();
+	private static final int QUEUE_CAPACITY = 1000;
+	
+	private final CopyOnWriteArrayList<Viewer> viewers = new CopyOnWriteArrayList<>();
+	private TaskEventBus.Subscription<TaskEvent> subscription = null;
+	
+	public static GridPushHub getInstance() {
+		return INSTANCE;
+	}
+	
+	private GridPushHub() {}
+	
+	public synchronized void register(Viewer viewer) {
+		viewers.add(viewer);
+		if (subscription == null) {
+			subscription = TaskEventBus.getInstance().subscribe("grid", TaskEvent.class, new Dispatcher(), QUEUE_CAPACITY);
+		}
+	}
+	
+	public synchronized void unregister(Viewer viewer) {
+		viewers.remove(viewer);
+		if (viewers.isEmpty() && (subscription != null)) {
+			TaskEventBus.getInstance().unsubscribe(subscription);
+			subscription = null;
+		}
+	}
+	
+	private void dispatch(TaskEvent event) {
+		final int categoryId = event.getCategoryId();
+		ArrayList<Viewer> targets = new ArrayList<>();
+		for (Viewer viewer : viewers) {
+			if (viewer.isViewing(categoryId)) targets.add(viewer);
+		}
+		
+		if (event instanceof CategoryChanged) {
+			// Name and color are carried by rows: simply reload them
+			if (!CategoryChanged.Type.CREATED.equals(((CategoryChanged)event).getType())) reload(targets);
+		
+		} else if (event.isCategoryWide()) {
+			reload(targets);
+		
+		} else if (event instanceof TaskDeleted) {
+			push(targets, categoryId, Collections.<TaskEx>emptyList(), event.getTaskIds());
+		
+		} else {
+			if (!targets.isEmpty()) {
+				try {
+					List<TaskEx> rows = TasksManager.listTasksByIdsForPush(categoryId, event.getTaskIds());
+					// Tasks not found anymore have been changed again in the meantime
+					HashSet<Integer> missingIds = new HashSet<>(event.getTaskIds());
+					for (TaskEx row : rows) {
+						missingIds.remove(row.getTaskId());
+					}
+					push(targets, categoryId, rows, missingIds);
+				
+				} catch(WTException ex) {
+					logger.warn("Unable to load pushed rows, reload requested [{}]", event, ex);
+					reload(targets);
+				}
+			}
+			if (event instanceof TaskMoved) {
+				// Viewers of the source only need to drop moved rows
+				final int sourceCategoryId = ((TaskMoved)event).getSourceCategoryId();
+				ArrayList<Viewer> sourceTargets = new ArrayList<>();
+				for (Viewer viewer : viewers) {
+					if (!targets.contains(viewer) && viewer.isViewing(sourceCategoryId)) sourceTargets.add(viewer);
+				}
+				push(sourceTargets, sourceCategoryId, Collections.<TaskEx>emptyList(), event.getTaskIds());
+			}
+		}
+	}
+	
+	private void push(Collection<Viewer> targets, int categoryId, List<TaskEx> upserts, Collection<Integer> removals) {
+		if (upserts.isEmpty() && removals.isEmpty()) return;
+		for (Viewer viewer : targets) {
+			try {
+				viewer.push(categoryId, upserts, removals);
+			} catch(RuntimeException ex) {
+				logger.warn("Unable to push grid changes", ex);
+			}
+		}
+	}
+	
+	private void reload(Collection<Viewer> targets) {
+		for (Viewer viewer : targets) {
+			try {
+				viewer.reload();
+			} catch(RuntimeException ex) {
+				logger.warn("Unable to push grid reload", ex);
+			}
+		}
+	}
+	
+	/**
+	 * A session grid receiving changes. Methods are called from the bus 
+	 * dispatcher thread and must not access the database.
+	 */
+	public static interface Viewer {
+		
+		/**
+		 * Checks if rows of the passed category are currently displayed.
+		 * @param categoryId The category ID.
+		 * @return 
+		 */
+		public boolean isViewing(int categoryId);
+		
+		/**
+		 * Pushes changed rows of a category being viewed.
+		 * @param categoryId The category ID.
+		 * @param upserts Rows to add or replace.
+		 * @param removals IDs of rows to remove.
+		 */
+		public void push(int categoryId, List<TaskEx> upserts, Collection<Integer> removals);
+		
+		/**
+		 * Asks for a full reload, when changes cannot be pushed row by row.
+		 */
+		public void reload();
+	}
+	
+	private class Dispatcher implements TaskEventListener<TaskEvent> {
+		
+		@Override
+		public void onEvent(TaskEvent event) {
+			dispatch(event);
+		}
+		
+		@Override
+		public void onEventsDropped(long count) {
+			reload(viewers);
+		}
+	}
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A compressed set of non-negative integers (task IDs) in the spirit of 
+ * Roaring bitmaps: values are split by their 16 high bits into chunks, each 
+ * one stored as a sorted array when sparse (up to 4096 values) or as a 
+ * fixed 8KB bitmap when dense. Set operations work chunk by chunk and 
+ * always return a new instance, never sharing chunks; not thread-safe 
+ * while being modified.
+ */
+public class IdBitmap {
+	private static final int ARRAY_MAX_SIZE = 4096;
+	private static final int BITMAP_WORDS = 1024;
+	private final TreeMap<Integer, Container> containers = new TreeMap<>();
+	
+	public static IdBitmap of(Collection<Integer> values) {
+		IdBitmap bitmap = new IdBitmap();
+		for (Integer value : values) {
+			bitmap.add(value);
+		}
+		return bitmap;
+	}
+	
+	public void add(int value) {
+		Integer high = value >>> 16;
+		Container container = containers.get(high);
+		if (container == null) container = new ArrayContainer();
+		containers.put(high, container.add((char)value));
+	}
+	
+	public void remove(int value) {
+		Integer high = value >>> 16;
+		Container container = containers.get(high);
+		if (container == null) return;
+		container = container.remove((char)value);
+		if (container.size() == 0) {
+			containers.remove(high);
+		} else {
+			containers.put(high, container);
+		}
+	}
+	
+	public boolean contains(int value) {
+		Container container = containers.get(value >>> 16);
+		return (container != null) && container.contains((char)value);
+	}
+	
+	public int size() {
+		int size = 0;
+		for (Container container : containers.values()) {
+			size += container.size();
+		}
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return containers.isEmpty();
+	}
+	
+	public IdBitmap and(IdBitmap other) {
+		IdBitmap result = new IdBitmap();
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			Container container = other.containers.get(entry.getKey());
+			if (container == null) continue;
+			result.putIfNotEmpty(entry.getKey(), entry.getValue().and(container));
+		}
+		return result;
+	}
+	
+	public IdBitmap or(IdBitmap other) {
+		IdBitmap result = new IdBitmap();
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			Container container = other.containers.get(entry.getKey());
+			result.putIfNotEmpty(entry.getKey(), (container == null) ? entry.getValue().copy() : entry.getValue().or(container));
+		}
+		for (Map.Entry<Integer, Container> entry : other.containers.entrySet()) {
+			if (!containers.containsKey(entry.getKey())) result.putIfNotEmpty(entry.getKey(), entry.getValue().copy());
+		}
+		return result;
+	}
+	
+	public IdBitmap andNot(IdBitmap other) {
+		IdBitmap result = new IdBitmap();
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			Container container = other.containers.get(entry.getKey());
+			result.putIfNotEmpty(entry.getKey(), (container == null) ? entry.getValue().copy() : entry.getValue().andNot(container));
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns values in ascending order.
+	 * @return 
+	 */
+	public int[] toArray() {
+		int[] values = new int[size()];
+		int pos = 0;
+		for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+			pos = entry.getValue().fill(entry.getKey() << 16, values, pos);
+		}
+		return values;
+	}
+	
+	private void putIfNotEmpty(Integer high, Container container) {
+		if (container.size() > 0) containers.put(high, container);
+	}
+	
+	private static abstract class Container {
+		abstract int size();
+		abstract boolean contains(char value);
+		abstract Container add(char value);
+		abstract Container remove(char value);
+		abstract Container copy();
+		abstract long[] toWords();
+		abstract int fill(int base, int[] values, int pos);
+		
+		Container and(Container other) {
+			if (this instanceof ArrayContainer) return ((ArrayContainer)this).filter(other, true);
+			if (other instanceof ArrayContainer) return ((ArrayContainer)other).filter(this, true);
+			long[] words = toWords();
+			long[] otherWords = ((BitmapContainer)other).words;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				words[i] &= otherWords[i];
+			}
+			return BitmapContainer.compact(words);
+		}
+		
+		Container or(Container other) {
+			if ((this instanceof ArrayContainer) && (other instanceof ArrayContainer) && (size() + other.size() <= ARRAY_MAX_SIZE)) {
+				return ((ArrayContainer)this).merge((ArrayContainer)other);
+			}
+			long[] words = toWords();
+			long[] otherWords = other.toWords();
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				words[i] |= otherWords[i];
+			}
+			return BitmapContainer.compact(words);
+		}
+		
+		Container andNot(Container other) {
+			if (this instanceof ArrayContainer) return ((ArrayContainer)this).filter(other, false);
+			long[] words = toWords();
+			long[] otherWords = other.toWords();
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				words[i] &= ~otherWords[i];
+			}
+			return BitmapContainer.compact(words);
+		}
+	}
+	
+	private static class ArrayContainer extends Container {
+		private char[] values;
+		private int size;
+		
+		ArrayContainer() {
+			this(new char[4], 0);
+		}
+		
+		ArrayContainer(char[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+		
+		@Override
+		int size() {
+			return size;
+		}
+		
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, size, value) >= 0;
+		}
+		
+		@Override
+		Container add(char value) {
+			int index = Arrays.binarySearch(values, 0, size, value);
+			if (index >= 0) return this;
+			if (size == ARRAY_MAX_SIZE) {
+				BitmapContainer bitmap = new BitmapContainer(toWords(), size);
+				return bitmap.add(value);
+			}
+			index = -index - 1;
+			if (size == values.length) values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_MAX_SIZE));
+			System.arraycopy(values, index, values, index + 1, size - index);
+			values[index] = value;
+			size++;
+			return this;
+		}
+		
+		@Override
+		Container remove(char value) {
+			int index = Arrays.binarySearch(values, 0, size, value);
+			if (index < 0) return this;
+			System.arraycopy(values, index + 1, values, index, size - index - 1);
+			size--;
+			return this;
+		}
+		
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, size), size);
+		}
+		
+		@Override
+		long[] toWords() {
+			long[] words = new long[BITMAP_WORDS];
+			for (int i = 0; i < size; i++) {
+				words[values[i] >>> 6] |= 1L << values[i];
+			}
+			return words;
+		}
+		
+		@Override
+		int fill(int base, int[] array, int pos) {
+			for (int i = 0; i < size; i++) {
+				array[pos++] = base | values[i];
+			}
+			return pos;
+		}
+		
+		ArrayContainer filter(Container other, boolean keepContained) {
+			char[] result = new char[size];
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				if (other.contains(values[i]) == keepContained) result[count++] = values[i];
+			}
+			return new ArrayContainer(result, count);
+		}
+		
+		ArrayContainer merge(ArrayContainer other) {
+			char[] result = new char[size + other.size];
+			int i = 0, j = 0, count = 0;
+			while ((i < size) && (j < other.size)) {
+				if (values[i] < other.values[j]) {
+					result[count++] = values[i++];
+				} else if (values[i] > other.values[j]) {
+					result[count++] = other.values[j++];
+				} else {
+					result[count++] = values[i++];
+					j++;
+				}
+			}
+			while (i < size) result[count++] = values[i++];
+			while (j < other.size) result[count++] = other.values[j++];
+			return new ArrayContainer(result, count);
+		}
+	}
+	
+	private static class BitmapContainer extends Container {
+		private final long[] words;
+		private int size;
+		
+		BitmapContainer(long[] words, int size) {
+			this.words = words;
+			this.size = size;
+		}
+		
+		static Container compact(long[] words) {
+			int size = 0;
+			for (long word : words) {
+				size += Long.bitCount(word);
+			}
+			BitmapContainer bitmap = new BitmapContainer(words, size);
+			return (size <= ARRAY_MAX_SIZE) ? bitmap.toArrayContainer() : bitmap;
+		}
+		
+		@Override
+		int size() {
+			return size;
+		}
+		
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+		
+		@Override
+		Container add(char value) {
+			if (!contains(value)) {
+				words[value >>> 6] |= 1L << value;
+				size++;
+			}
+			return this;
+		}
+		
+		@Override
+		Container remove(char value) {
+			if (contains(value)) {
+				words[value >>> 6] &= ~(1L << value);
+				size--;
+				if (size <= ARRAY_MAX_SIZE) return toArrayContainer();
+			}
+			return this;
+		}
+		
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone(), size);
+		}
+		
+		@Override
+		long[] toWords() {
+			return words.clone();
+		}
+		
+		@Override
+		int fill(int base, int[] array, int pos) {
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					array[pos++] = base | ((i << 6) + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return pos;
+		}
+		
+		ArrayContainer toArrayContainer() {
+			char[] values = new char[size];
+			int count = 0;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[count++] = (char)((i << 6) + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, count);
+		}
+	}
+}
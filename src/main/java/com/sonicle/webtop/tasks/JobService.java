@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import com.sonicle.webtop.core.app.RunContext;
+import com.sonicle.webtop.core.app.WT;
+import com.sonicle.webtop.core.sdk.BaseJobService;
+import com.sonicle.webtop.core.sdk.BaseJobServiceTask;
+import java.util.ArrayList;
+import java.util.List;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.slf4j.Logger;
+
+/**
+ *
+ * @author malbinola
+ */
+public class JobService extends BaseJobService {
+	private static final Logger logger = WT.getLogger(JobService.class);
+	private TasksManager manager = null;
+	
+	@Override
+	public void initialize() throws Exception {
+		manager = (TasksManager)WT.getServiceManager(SERVICE_ID, true, RunContext.getRunProfileId());
+	}
+	
+	@Override
+	public void cleanup() throws Exception {
+		manager = null;
+	}
+	
+	@Override
+	public List<TaskDefinition> returnTasks() {
+		ArrayList<TaskDefinition> jobs = new ArrayList<>();
+		
+		// Tombstone compaction job
+		Trigger compactionTrigger = TriggerBuilder.newTrigger()
+				.withSchedule(CronScheduleBuilder.cronSchedule("0 30 3 * * ?")) // Every day at 03:30
+				.build();
+		jobs.add(new TaskDefinition(TombstoneCompactionJob.class, compactionTrigger));
+		
+		return jobs;
+	}
+	
+	public static class TombstoneCompactionJob extends BaseJobServiceTask {
+		private JobService jobService = null;
+		
+		@Override
+		public void setJobService(BaseJobService jobService) {
+			// This method is automatically called by scheduler engine
+			// while instantiating this task.
+			this.jobService = (JobService)jobService;
+		}
+		
+		@Override
+		public void executeWork() {
+			TasksServiceSettings ss = new TasksServiceSettings(jobService.SERVICE_ID, "*");
+			int retentionDays = Math.max(ss.getTombstoneRetentionDays(), 1);
+			int chunkSize = Math.max(ss.getTombstoneCompactionChunkSize(), 1);
+			long throttle = Math.max(ss.getTombstoneCompactionThrottle(), 0);
+			
+			try {
+				DateTime before = DateTime.now(DateTimeZone.UTC).minusDays(retentionDays);
+				logger.debug("TombstoneCompactionJob started [{}, {}]", before, chunkSize);
+				jobService.manager.compactDeletedTasks(before, chunkSize, throttle);
+				logger.debug("TombstoneCompactionJob finished");
+			
+			} catch(Exception ex) {
+				logger.error("Error executing TombstoneCompactionJob", ex);
+			}
+		}
+	}
+}
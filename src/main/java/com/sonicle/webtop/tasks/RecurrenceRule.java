@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Days;
+import org.joda.time.Weeks;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * A subset of iCalendar RRULE (RFC 5545) covering FREQ, INTERVAL, COUNT, 
+ * UNTIL and, for weekly rules, BYDAY. Occurrences are never enumerated 
+ * upfront: they are computed on demand starting from a known occurrence 
+ * (the one currently held by the task row) and its index within the series.
+ * Like the RFC, dates that do not exist in a period (eg. the 31st in a 
+ * 30-days month) are skipped, not clamped.
+ */
+public class RecurrenceRule {
+	private static final DateTimeFormatter UNTIL_DATE_FMT = DateTimeFormat.forPattern("yyyyMMdd").withZone(DateTimeZone.UTC);
+	private static final DateTimeFormatter UNTIL_DATETIME_FMT = DateTimeFormat.forPattern("yyyyMMdd'T'HHmmss'Z'").withZone(DateTimeZone.UTC);
+	private static final String[] WEEKDAYS = new String[]{"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+	private static final int MAX_EMPTY_PERIODS = 1000;
+	
+	public static enum Frequency {
+		DAILY, WEEKLY, MONTHLY, YEARLY
+	}
+	
+	private final Frequency frequency;
+	private final int interval;
+	private final Integer count;
+	private final DateTime until;
+	private final List<Integer> byDays;
+	
+	private RecurrenceRule(Frequency frequency, int interval, Integer count, DateTime until, List<Integer> byDays) {
+		this.frequency = frequency;
+		this.interval = interval;
+		this.count = count;
+		this.until = until;
+		this.byDays = byDays;
+	}
+	
+	public Frequency getFrequency() {
+		return frequency;
+	}
+	
+	public int getInterval() {
+		return interval;
+	}
+	
+	public Integer getCount() {
+		return count;
+	}
+	
+	public DateTime getUntil() {
+		return until;
+	}
+	
+	/**
+	 * Parses a rule like "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;COUNT=10".
+	 * The optional "RRULE:" prefix is accepted. UNTIL values are read as UTC, 
+	 * consistently with how task dates are stored.
+	 * @param value The rule string.
+	 * @return The parsed rule.
+	 * @throws IllegalArgumentException If the rule is malformed or uses unsupported parts.
+	 */
+	public static RecurrenceRule parse(String value) throws IllegalArgumentException {
+		if (StringUtils.isBlank(value)) throw new IllegalArgumentException("Empty rule");
+		String s = StringUtils.removeStartIgnoreCase(value.trim(), "RRULE:");
+		
+		Frequency frequency = null;
+		int interval = 1;
+		Integer count = null;
+		DateTime until = null;
+		TreeSet<Integer> byDays = new TreeSet<>();
+		for (String part : StringUtils.split(s, ';')) {
+			String name = StringUtils.upperCase(StringUtils.substringBefore(part, "=").trim());
+			String val = StringUtils.upperCase(StringUtils.substringAfter(part, "=").trim());
+			try {
+				if ("FREQ".equals(name)) {
+					frequency = Frequency.valueOf(val);
+				} else if ("INTERVAL".equals(name)) {
+					interval = Integer.parseInt(val);
+				} else if ("COUNT".equals(name)) {
+					count = Integer.parseInt(val);
+				} else if ("UNTIL".equals(name)) {
+					until = (val.length() == 8) ? UNTIL_DATE_FMT.parseDateTime(val).plusDays(1).minusMillis(1) : UNTIL_DATETIME_FMT.parseDateTime(val);
+				} else if ("BYDAY".equals(name)) {
+					for (String day : StringUtils.split(val, ',')) {
+						int index = ArrayUtils.indexOf(WEEKDAYS, day.trim());
+						if (index == -1) throw new IllegalArgumentException("Unsupported BYDAY value [" + day + "]");
+						byDays.add(DateTimeConstants.MONDAY + index);
+					}
+				} else if (!"WKST".equals(name)) {
+					throw new IllegalArgumentException("Unsupported rule part [" + name + "]");
+				}
+			} catch(NumberFormatException ex) {
+				throw new IllegalArgumentException("Invalid value for [" + name + "]", ex);
+			}
+		}
+		if (frequency == null) throw new IllegalArgumentException("Missing FREQ");
+		if (interval < 1) throw new IllegalArgumentException("INTERVAL must be positive");
+		if ((count != null) && (count < 1)) throw new IllegalArgumentException("COUNT must be positive");
+		if ((count != null) && (until != null)) throw new IllegalArgumentException("COUNT and UNTIL are mutually exclusive");
+		if (!byDays.isEmpty() && !Frequency.WEEKLY.equals(frequency)) throw new IllegalArgumentException("BYDAY is supported on weekly rules only");
+		return new RecurrenceRule(frequency, interval, count, until, Collections.unmodifiableList(new ArrayList<>(byDays)));
+	}
+	
+	/**
+	 * Computes the occurrence following the passed one.
+	 * @param start The first occurrence of the series (DTSTART).
+	 * @param current A known occurrence of the series.
+	 * @param currentIndex The 0-based index of the known occurrence.
+	 * @return The next occurrence, or null if the series is over.
+	 */
+	public DateTime next(DateTime start, DateTime current, int currentIndex) {
+		if ((count != null) && (currentIndex + 1 >= count)) return null;
+		DateTime next = following(start, current);
+		if ((next == null) || ((until != null) && next.isAfter(until))) return null;
+		return next;
+	}
+	
+	/**
+	 * Lists occurrences falling within [from, to), walking the series 
+	 * forward from the passed known occurrence (included).
+	 * @param start The first occurrence of the series (DTSTART).
+	 * @param current A known occurrence of the series.
+	 * @param currentIndex The 0-based index of the known occurrence.
+	 * @param from Window lower bound (inclusive).
+	 * @param to Window upper bound (exclusive).
+	 * @param max Max number of occurrences to return.
+	 * @return 
+	 */
+	public List<DateTime> between(DateTime start, DateTime current, int currentIndex, DateTime from, DateTime to, int max) {
+		ArrayList<DateTime> items = new ArrayList<>();
+		DateTime dt = current;
+		int index = currentIndex;
+		while ((dt != null) && dt.isBefore(to) && (items.size() < max)) {
+			if (!dt.isBefore(from)) items.add(dt);
+			dt = next(start, dt, index++);
+		}
+		return items;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("FREQ=").append(frequency.name());
+		if (interval > 1) sb.append(";INTERVAL=").append(interval);
+		if (count != null) sb.append(";COUNT=").append(count);
+		if (until != null) sb.append(";UNTIL=").append(UNTIL_DATETIME_FMT.print(until));
+		if (!byDays.isEmpty()) {
+			ArrayList<String> days = new ArrayList<>(byDays.size());
+			for (Integer day : byDays) {
+				days.add(WEEKDAYS[day - DateTimeConstants.MONDAY]);
+			}
+			sb.append(";BYDAY=").append(StringUtils.join(days, ","));
+		}
+		return sb.toString();
+	}
+	
+	private DateTime following(DateTime start, DateTime current) {
+		long period = periodOf(start, current);
+		for (int i = 0; i < MAX_EMPTY_PERIODS; i++, period++) {
+			for (DateTime candidate : candidates(start, period)) {
+				if (candidate.isAfter(current)) return candidate;
+			}
+		}
+		return null;
+	}
+	
+	private long periodOf(DateTime start, DateTime dt) {
+		if (!dt.isAfter(start)) return 0;
+		long units;
+		if (Frequency.DAILY.equals(frequency)) {
+			units = Days.daysBetween(start.toLocalDate(), dt.toLocalDate()).getDays();
+		} else if (Frequency.WEEKLY.equals(frequency)) {
+			units = Weeks.weeksBetween(weekStart(start).toLocalDate(), weekStart(dt).toLocalDate()).getWeeks();
+		} else if (Frequency.MONTHLY.equals(frequency)) {
+			units = (dt.getYear() * 12 + dt.getMonthOfYear()) - (start.getYear() * 12 + start.getMonthOfYear());
+		} else {
+			units = dt.getYear() - start.getYear();
+		}
+		return units / interval;
+	}
+	
+	private List<DateTime> candidates(DateTime start, long period) {
+		int amount = (int)(period * interval);
+		ArrayList<DateTime> items = new ArrayList<>();
+		if (Frequency.DAILY.equals(frequency)) {
+			items.add(start.plusDays(amount));
+		
+		} else if (Frequency.WEEKLY.equals(frequency)) {
+			if (byDays.isEmpty()) {
+				items.add(start.plusWeeks(amount));
+			} else {
+				DateTime week = weekStart(start).plusWeeks(amount);
+				for (Integer day : byDays) {
+					DateTime dt = week.withDayOfWeek(day);
+					if (!dt.isBefore(start)) items.add(dt);
+				}
+			}
+		
+		} else {
+			// Move on the 1st, so the target month/year is never clamped
+			DateTime base = start.withDayOfMonth(1);
+			base = Frequency.MONTHLY.equals(frequency) ? base.plusMonths(amount) : base.plusYears(amount);
+			if (start.getDayOfMonth() <= base.dayOfMonth().getMaximumValue()) {
+				items.add(base.withDayOfMonth(start.getDayOfMonth()));
+			}
+		}
+		return items;
+	}
+	
+	private static DateTime weekStart(DateTime dt) {
+		return dt.withDayOfWeek(DateTimeConstants.MONDAY);
+	}
+}
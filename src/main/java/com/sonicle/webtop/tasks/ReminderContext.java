@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import com.sonicle.webtop.core.app.WT;
+import com.sonicle.webtop.core.sdk.UserProfile;
+import com.sonicle.webtop.core.sdk.UserProfileId;
+import com.sonicle.webtop.tasks.bol.VTask;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Per-pass cache of the profile data needed for processing reminders 
+ * (time zone, locale and delivery mode). Each profile, and each domain's 
+ * service settings, is resolved once per pass no matter how many of its 
+ * reminders are involved. Not thread-safe: use one instance per pass.
+ */
+public class ReminderContext {
+	private final String serviceId;
+	private final HashMap<String, TasksServiceSettings> serviceSettings = new HashMap<>();
+	private final HashMap<String, ProfileData> profiles = new HashMap<>();
+	
+	public ReminderContext(String serviceId) {
+		this.serviceId = serviceId;
+	}
+	
+	/**
+	 * Resolves (once per pass) the profile data of owners of passed tasks, 
+	 * one profile at a time: later lookups are then served from this cache.
+	 * @param tasks The tasks.
+	 */
+	public void prefetch(Collection<VTask> tasks) {
+		for (VTask task : tasks) {
+			getProfile(task);
+		}
+	}
+	
+	public ProfileData getProfile(VTask task) {
+		final String key = task.getCategoryUserId() + "@" + task.getCategoryDomainId();
+		ProfileData data = profiles.get(key);
+		if (data == null) {
+			data = loadProfile(task.getCategoryProfileId());
+			profiles.put(key, data);
+		}
+		return data;
+	}
+	
+	/**
+	 * Computes the actual reminder instant: reminder dates are stored 
+	 * as wall times (in UTC fields) of the category owner's timezone.
+	 * @param task The task.
+	 * @return 
+	 */
+	public DateTime toReminderInstant(VTask task) {
+		return task.getReminderDate().withZone(DateTimeZone.UTC).withZoneRetainFields(getProfile(task).getTimeZone());
+	}
+	
+	private ProfileData loadProfile(UserProfileId profileId) {
+		TasksServiceSettings ss = serviceSettings.get(profileId.getDomainId());
+		if (ss == null) {
+			ss = new TasksServiceSettings(serviceId, profileId.getDomainId());
+			serviceSettings.put(profileId.getDomainId(), ss);
+		}
+		UserProfile.Data ud = WT.getUserData(profileId);
+		TasksUserSettings us = new TasksUserSettings(serviceId, profileId, ss);
+		boolean byEmail = TasksSettings.TASK_REMINDER_DELIVERY_EMAIL.equals(us.getTaskReminderDelivery());
+		return new ProfileData(profileId, ud.getTimeZone(), ud.getLocale(), byEmail);
+	}
+	
+	public static class ProfileData {
+		private final UserProfileId profileId;
+		private final DateTimeZone timeZone;
+		private final Locale locale;
+		private final boolean byEmail;
+		
+		public ProfileData(UserProfileId profileId, DateTimeZone timeZone, Locale locale, boolean byEmail) {
+			this.profileId = profileId;
+			this.timeZone = timeZone;
+			this.locale = locale;
+			this.byEmail = byEmail;
+		}
+		
+		public UserProfileId getProfileId() {
+			return profileId;
+		}
+		
+		public DateTimeZone getTimeZone() {
+			return timeZone;
+		}
+		
+		public Locale getLocale() {
+			return locale;
+		}
+		
+		/**
+		 * Returns true if reminders have to be delivered by email.
+		 * @return 
+		 */
+		public boolean isByEmail() {
+			return byEmail;
+		}
+	}
+}
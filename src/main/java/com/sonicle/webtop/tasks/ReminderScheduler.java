@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import com.sonicle.webtop.tasks.bol.VTask;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.joda.time.DateTime;
+
+/**
+ * Keeps upcoming task reminders of this node in a {@link TimingWheel}, 
+ * so that each reminder tick only has to look at due tasks instead of 
+ * scanning the database. Local changes mark tasks (or whole categories) 
+ * as dirty and are reloaded at the next tick; the whole wheel is rebuilt 
+ * from the database at a low frequency, picking up changes made by other 
+ * nodes. Database remains the source of truth: due reminders are always 
+ * claimed there before being notified.
+ */
+public class ReminderScheduler {
+	private static final ReminderScheduler INSTANCE = new ReminderScheduler();
+	private static final long TICK_MILLIS = 1000L;
+	private static final int WHEEL_SIZE = 60;
+	
+	private TimingWheel<Integer> wheel = null;
+	private final HashMap<Integer, Integer> categoryIdsByTask = new HashMap<>();
+	private final HashSet<Integer> dirtyTaskIds = new HashSet<>();
+	private final HashSet<Integer> dirtyCategoryIds = new HashSet<>();
+	private DateTime loadedUntil = null;
+	private DateTime reconcileAfter = null;
+	
+	public static ReminderScheduler getInstance() {
+		return INSTANCE;
+	}
+	
+	private ReminderScheduler() {}
+	
+	/**
+	 * Returns true if the wheel needs to be (re)loaded from the database.
+	 * @param now Current time.
+	 * @return 
+	 */
+	public synchronized boolean needsReconcile(DateTime now) {
+		return (wheel == null) || !now.isBefore(reconcileAfter);
+	}
+	
+	/**
+	 * Rebuilds the wheel from passed tasks.
+	 * @param ctx The reminder pass context.
+	 * @param now Current time.
+	 * @param tasks Tasks with a reminder before {@code until}.
+	 * @param until The instant up to which reminders have been loaded.
+	 * @param nextReconcile When the next reconciliation is due.
+	 */
+	public synchronized void reconcile(ReminderContext ctx, DateTime now, List<VTask> tasks, DateTime until, DateTime nextReconcile) {
+		wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, now.getMillis());
+		categoryIdsByTask.clear();
+		// Dirty marks are kept: changes made while loading will be reloaded
+		loadedUntil = until;
+		reconcileAfter = nextReconcile;
+		for (VTask task : tasks) {
+			doSchedule(task, ctx.toReminderInstant(task));
+		}
+	}
+	
+	/**
+	 * Marks a task as changed: it will be reloaded at the next tick.
+	 * @param taskId The task ID.
+	 */
+	public synchronized void touch(int taskId) {
+		if (wheel != null) dirtyTaskIds.add(taskId);
+	}
+	
+	/**
+	 * Marks tasks as changed: they will be reloaded at the next tick.
+	 * @param taskIds The task IDs.
+	 */
+	public synchronized void touch(Collection<Integer> taskIds) {
+		if (wheel != null) dirtyTaskIds.addAll(taskIds);
+	}
+	
+	/**
+	 * Marks all tasks of a category as changed.
+	 * @param categoryId The category ID.
+	 */
+	public synchronized void touchCategory(int categoryId) {
+		if (wheel != null) dirtyCategoryIds.add(categoryId);
+	}
+	
+	public synchronized boolean isDirty() {
+		return !dirtyTaskIds.isEmpty() || !dirtyCategoryIds.isEmpty();
+	}
+	
+	/**
+	 * Returns (and clears) dirty task IDs.
+	 * @return 
+	 */
+	public synchronized HashSet<Integer> drainDirtyTaskIds() {
+		HashSet<Integer> ids = new HashSet<>(dirtyTaskIds);
+		dirtyTaskIds.clear();
+		return ids;
+	}
+	
+	/**
+	 * Returns (and clears) dirty category IDs.
+	 * @return 
+	 */
+	public synchronized HashSet<Integer> drainDirtyCategoryIds() {
+		HashSet<Integer> ids = new HashSet<>(dirtyCategoryIds);
+		dirtyCategoryIds.clear();
+		return ids;
+	}
+	
+	/**
+	 * Returns the instant up to which reminders are loaded.
+	 * @return 
+	 */
+	public synchronized DateTime getLoadedUntil() {
+		return loadedUntil;
+	}
+	
+	/**
+	 * Replaces reminders of drained dirty tasks/categories with reloaded ones.
+	 * @param ctx The reminder pass context.
+	 * @param taskIds Drained dirty task IDs.
+	 * @param categoryIds Drained dirty category IDs.
+	 * @param tasks Current state (tasks with a reminder only) of affected tasks.
+	 */
+	public synchronized void refresh(ReminderContext ctx, Collection<Integer> taskIds, Collection<Integer> categoryIds, List<VTask> tasks) {
+		if (wheel == null) return;
+		for (Integer taskId : taskIds) {
+			doCancel(taskId);
+		}
+		if (!categoryIds.isEmpty()) {
+			ArrayList<Integer> cancelled = new ArrayList<>();
+			for (Map.Entry<Integer, Integer> entry : categoryIdsByTask.entrySet()) {
+				if (categoryIds.contains(entry.getValue())) cancelled.add(entry.getKey());
+			}
+			for (Integer taskId : cancelled) {
+				doCancel(taskId);
+			}
+		}
+		for (VTask task : tasks) {
+			doSchedule(task, ctx.toReminderInstant(task));
+		}
+	}
+	
+	/**
+	 * Re-schedules a task whose reminder turned out to be not due yet.
+	 * @param task The task.
+	 * @param reminderInstant The actual reminder instant.
+	 */
+	public synchronized void reschedule(VTask task, DateTime reminderInstant) {
+		if (wheel != null) doSchedule(task, reminderInstant);
+	}
+	
+	/**
+	 * Advances the wheel returning tasks whose reminder is due.
+	 * @param now Current time.
+	 * @return Due task IDs.
+	 */
+	public synchronized List<Integer> pollDue(DateTime now) {
+		if (wheel == null) return new ArrayList<>();
+		List<Integer> taskIds = wheel.advance(now.getMillis());
+		for (Integer taskId : taskIds) {
+			categoryIdsByTask.remove(taskId);
+		}
+		return taskIds;
+	}
+	
+	private void doSchedule(VTask task, DateTime reminderInstant) {
+		wheel.schedule(task.getTaskId(), reminderInstant.getMillis());
+		categoryIdsByTask.put(task.getTaskId(), task.getCategoryId());
+	}
+	
+	private void doCancel(Integer taskId) {
+		wheel.cancel(taskId);
+		categoryIdsByTask.remove(taskId);
+	}
+}
@@ -37,7 +37,10 @@ import com.sonicle.webtop.core.app.WT;
 import com.sonicle.webtop.core.sdk.BaseRestApiEndpoint;
 import com.sonicle.webtop.core.sdk.UserProfileId;
 import com.sonicle.webtop.core.sdk.WTException;
+import com.sonicle.webtop.tasks.bol.js.rest.JsChangedTasks;
 import com.sonicle.webtop.tasks.bol.js.rest.JsIncomingCategory;
+import com.sonicle.webtop.tasks.bol.model.ChangedTasks;
+import com.sonicle.webtop.tasks.bol.model.TaskSyncToken;
 import com.sonicle.webtop.tasks.model.Category;
 import com.sonicle.webtop.tasks.model.CategoryPropSet;
 import com.sonicle.webtop.tasks.model.ShareFolderCategory;
@@ -45,9 +48,11 @@ import com.sonicle.webtop.tasks.model.ShareRootCategory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -80,6 +85,35 @@ public class RestApi extends BaseRestApiEndpoint {
 		return ok(items);
 	}
 	
+	/**
+	 * Change feed of tasks: see {@link TasksManager#listChangedTasks}.
+	 * Without a syncToken only active tasks are returned (initial sync), 
+	 * otherwise deletions (and moves elsewhere) are returned as well. 
+	 * Answers 410 (Gone) if the syncToken is too old: start over without it.
+	 */
+	@GET
+	@Path("/categories/changes")
+	@Produces({MediaType.APPLICATION_JSON})
+	public Response listChangedTasks(@QueryParam("categoryId") List<Integer> categoryIds, @QueryParam("syncToken") String syncToken, @QueryParam("limit") @DefaultValue("500") int limit) throws WTException {
+		TasksManager manager = getManager();
+		
+		ArrayList<Integer> catIds = new ArrayList<>();
+		if ((categoryIds == null) || categoryIds.isEmpty()) {
+			catIds.addAll(manager.listCategoryIds());
+			catIds.addAll(manager.listIncomingCategoryIds());
+		} else {
+			catIds.addAll(categoryIds);
+		}
+		
+		int pageSize = Math.min(Math.max(limit, 1), 1000);
+		ChangedTasks changes = manager.listChangedTasks(catIds, TaskSyncToken.parse(syncToken), pageSize);
+		if (changes.isResyncRequired()) {
+			// Token too old: client must start over without it
+			return Response.status(Response.Status.GONE).entity(new JsChangedTasks(changes)).build();
+		}
+		return ok(new JsChangedTasks(changes));
+	}
+	
 	private TasksManager getManager() {
 		return getManager(RunContext.getRunProfileId());
 	}
@@ -33,7 +33,7 @@
 package com.sonicle.webtop.tasks;
 
 import com.sonicle.commons.EnumUtils;
-import com.sonicle.commons.LangUtils;
+import com.sonicle.commons.time.DateTimeUtils;
 import com.sonicle.commons.web.Crud;
 import com.sonicle.commons.web.ServletUtils;
 import com.sonicle.commons.web.ServletUtils.IntegerArray;
@@ -60,6 +60,7 @@ import com.sonicle.webtop.core.bol.model.Sharing;
 import com.sonicle.webtop.core.io.output.AbstractReport;
 import com.sonicle.webtop.core.io.output.ReportConfig;
 import com.sonicle.webtop.core.sdk.BaseService;
+import com.sonicle.webtop.core.sdk.ServiceMessage;
 import com.sonicle.webtop.core.sdk.UserProfile;
 import com.sonicle.webtop.core.sdk.UserProfileId;
 import com.sonicle.webtop.core.sdk.WTException;
@@ -67,9 +68,19 @@ import com.sonicle.webtop.tasks.bol.js.JsCategory;
 import com.sonicle.webtop.tasks.bol.js.JsCategoryLkp;
 import com.sonicle.webtop.tasks.bol.js.JsFolderNode.JsFolderNodeList;
 import com.sonicle.webtop.tasks.bol.js.JsGridTask;
+import com.sonicle.webtop.tasks.bol.js.JsGridTasksDelta;
 import com.sonicle.webtop.tasks.bol.js.JsPletTasks;
 import com.sonicle.webtop.tasks.bol.js.JsTask;
+import com.sonicle.webtop.tasks.bol.js.JsTaskAttachment;
 import com.sonicle.webtop.tasks.bol.model.RBTaskDetail;
+import com.sonicle.webtop.tasks.bol.model.TaskChanges;
+import com.sonicle.webtop.tasks.bol.model.TagFilter;
+import com.sonicle.webtop.tasks.bol.model.TaskAttachment;
+import com.sonicle.webtop.tasks.bol.model.TaskCursor;
+import com.sonicle.webtop.tasks.bol.model.TaskImportResult;
+import com.sonicle.webtop.tasks.bol.model.TaskNode;
+import com.sonicle.webtop.tasks.bol.model.TaskOccurrence;
+import com.sonicle.webtop.tasks.dal.UnitOfWork;
 import com.sonicle.webtop.tasks.model.Category;
 import com.sonicle.webtop.tasks.model.CategoryPropSet;
 import com.sonicle.webtop.tasks.model.FolderTasks;
@@ -77,8 +88,11 @@ import com.sonicle.webtop.tasks.model.Task;
 import com.sonicle.webtop.tasks.model.TaskEx;
 import com.sonicle.webtop.tasks.rpt.RptTasksDetail;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -88,6 +102,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
 
@@ -99,6 +114,10 @@ public class Service extends BaseService {
 	public static final Logger logger = WT.getLogger(Service.class);
 	public static final String WORK_VIEW = "w";
 	public static final String HOME_VIEW = "h";
+	private static final int IMPORT_BATCH_SIZE = 500;
+	private static final int OCCURRENCES_MAX_PER_SERIES = 500;
+	private static final int PORTLET_SEARCH_MAX_RESULTS = 50;
+	public static final String MSG_GRID_TASKS_CHANGED = "gridTasksChanged";
 	
 	private TasksManager manager;
 	private TasksServiceSettings ss;
@@ -112,6 +131,7 @@ public class Service extends BaseService {
 	
 	private CheckedRoots checkedRoots = null;
 	private CheckedFolders checkedFolders = null;
+	private final GridViewer gridViewer = new GridViewer();
 	
 	@Override
 	public void initialize() throws Exception {
@@ -120,10 +140,12 @@ public class Service extends BaseService {
 		ss = new TasksServiceSettings(SERVICE_ID, up.getDomainId());
 		us = new TasksUserSettings(SERVICE_ID, up.getId());
 		initFolders();
+		GridPushHub.getInstance().register(gridViewer);
 	}
 	
 	@Override
 	public void cleanup() throws Exception {
+		GridPushHub.getInstance().unregister(gridViewer);
 		checkedFolders.clear();
 		checkedFolders = null;
 		checkedRoots.clear();
@@ -332,6 +354,21 @@ public class Service extends BaseService {
 		}
 	}
 	
+	public void processLookupTags(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
+		List<JsSimple> items = new ArrayList<>();
+		
+		try {
+			for (String tag : manager.listTags(getVisibleFolderIds(true))) {
+				items.add(new JsSimple(tag, tag));
+			}
+			new JsonResult("tags", items, items.size()).printTo(out);
+		
+		} catch(Exception ex) {
+			logger.error("Error in LookupTags", ex);
+			new JsonResult(false, "Error").printTo(out);
+		}
+	}
+	
 	public void processManageSharing(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
 		
 		try {
@@ -478,17 +515,37 @@ public class Service extends BaseService {
 			String crud = ServletUtils.getStringParameter(request, "crud", true);
 			if (crud.equals(Crud.READ)) {
 				String query = ServletUtils.getStringParameter(request, "query", null);
-				String pattern = (query == null) ? null : ("%" + query.toLowerCase() + "%");
+				int pageSize = ServletUtils.getIntParameter(request, "pageSize", -1);
+				String cursor = ServletUtils.getStringParameter(request, "cursor", null);
+				String tags = ServletUtils.getStringParameter(request, "tags", null);
 				
+				TagFilter tagFilter = StringUtils.isBlank(tags) ? null : TagFilter.fromJson(tags);
 				List<Integer> visibleCategoryIds = getVisibleFolderIds(true);
-				List<FolderTasks> foTasksObjs = manager.listFolderTasks(visibleCategoryIds, pattern);
-				for (FolderTasks foTasksObj : foTasksObjs) {
-					final int categoryId = foTasksObj.folder.getCategoryId();
-					final ShareFolderCategory fold = folders.get(categoryId);
-					if (fold == null) continue;
-					
-					for (TaskEx te : foTasksObj.tasks) {
-						items.add(new JsGridTask(fold, folderProps.get(categoryId), te, DateTimeZone.UTC));
+				if (!StringUtils.isBlank(query)) {
+					for (TaskEx te : manager.searchTasks(visibleCategoryIds, query, pageSize)) {
+						final ShareFolderCategory fold = folders.get(te.getCategoryId());
+						if (fold == null) continue;
+						
+						items.add(new JsGridTask(fold, folderProps.get(te.getCategoryId()), te, DateTimeZone.UTC));
+					}
+				} else if ((pageSize > 0) && ((tagFilter == null) || tagFilter.isEmpty())) {
+					TaskCursor after = StringUtils.isBlank(cursor) ? null : TaskCursor.fromJson(cursor);
+					for (TaskEx te : manager.listTasks(visibleCategoryIds, null, after, pageSize)) {
+						final ShareFolderCategory fold = folders.get(te.getCategoryId());
+						if (fold == null) continue;
+						
+						items.add(new JsGridTask(fold, folderProps.get(te.getCategoryId()), te, DateTimeZone.UTC));
+					}
+				} else {
+					List<FolderTasks> foTasksObjs = manager.listFolderTasks(visibleCategoryIds, null, tagFilter);
+					for (FolderTasks foTasksObj : foTasksObjs) {
+						final int categoryId = foTasksObj.folder.getCategoryId();
+						final ShareFolderCategory fold = folders.get(categoryId);
+						if (fold == null) continue;
+						
+						for (TaskEx te : foTasksObj.tasks) {
+							items.add(new JsGridTask(fold, folderProps.get(categoryId), te, DateTimeZone.UTC));
+						}
 					}
 				}
 				new JsonResult("tasks", items).printTo(out);
@@ -500,8 +557,71 @@ public class Service extends BaseService {
 		}
 	}
 	    
+	public void processListTaskTree(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
+		ArrayList<JsGridTask> items = new ArrayList<>();
+		
+		try {
+			String parent = ServletUtils.getStringParameter(request, "parentId", null);
+			int pageSize = ServletUtils.getIntParameter(request, "pageSize", 50);
+			String cursor = ServletUtils.getStringParameter(request, "cursor", null);
+			
+			List<Integer> visibleCategoryIds = getVisibleFolderIds(true);
+			TaskCursor after = StringUtils.isBlank(cursor) ? null : TaskCursor.fromJson(cursor);
+			for (TaskNode node : manager.listTaskTreePage(visibleCategoryIds, StringUtils.isBlank(parent) ? null : Integer.valueOf(parent), after, pageSize)) {
+				final ShareFolderCategory fold = folders.get(node.getTask().getCategoryId());
+				if (fold == null) continue;
+				
+				items.add(new JsGridTask(fold, folderProps.get(node.getTask().getCategoryId()), node, DateTimeZone.UTC));
+			}
+			new JsonResult("tasks", items).printTo(out);
+		
+		} catch(Exception ex) {
+			logger.error("Error in ListTaskTree", ex);
+			new JsonResult(false, "Error").printTo(out);
+		}
+	}
+	
+	public void processMoveTaskSubtree(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
+		try {
+			Integer id = ServletUtils.getIntParameter(request, "id", true);
+			String parent = ServletUtils.getStringParameter(request, "parentId", null);
+			
+			manager.moveTaskSubtree(id, StringUtils.isBlank(parent) ? null : Integer.valueOf(parent));
+			new JsonResult().printTo(out);
+		
+		} catch(Exception ex) {
+			logger.error("Error in MoveTaskSubtree", ex);
+			new JsonResult(false, "Error").printTo(out);
+		}
+	}
+	
+	public void processListTaskOccurrences(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
+		ArrayList<JsGridTask> items = new ArrayList<>();
+		
+		try {
+			String from = ServletUtils.getStringParameter(request, "from", true);
+			String to = ServletUtils.getStringParameter(request, "to", true);
+			
+			List<Integer> visibleCategoryIds = getVisibleFolderIds(true);
+			DateTime fromDate = DateTimeUtils.parseYmdHmsWithZone(from, DateTimeZone.UTC);
+			DateTime toDate = DateTimeUtils.parseYmdHmsWithZone(to, DateTimeZone.UTC);
+			for (TaskOccurrence occ : manager.listTaskOccurrences(visibleCategoryIds, fromDate, toDate, OCCURRENCES_MAX_PER_SERIES)) {
+				final ShareFolderCategory fold = folders.get(occ.getTask().getCategoryId());
+				if (fold == null) continue;
+				
+				items.add(new JsGridTask(fold, folderProps.get(occ.getTask().getCategoryId()), occ, DateTimeZone.UTC));
+			}
+			new JsonResult("tasks", items).printTo(out);
+		
+		} catch(Exception ex) {
+			logger.error("Error in ListTaskOccurrences", ex);
+			new JsonResult(false, "Error").printTo(out);
+		}
+	}
+	
 	public void processManageTasks(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
 		JsTask item = null;
+		UnitOfWork uow = UnitOfWork.begin(SERVICE_ID);
 		
 		try {
 			DateTimeZone ptz = getEnv().getProfile().getTimeZone();
@@ -514,23 +634,30 @@ public class Service extends BaseService {
 				Task task = manager.getTask(taskId);
 				UserProfileId ownerId = manager.getCategoryOwner(task.getCategoryId());
 				item = new JsTask(ownerId, task, DateTimeZone.UTC);
+				item.recurrenceRule = manager.getTaskRecurrence(taskId);
+				item.tags = manager.getTaskTags(taskId);
 				
+				uow.commit();
 				new JsonResult(item).printTo(out);
 				
 			} else if(crud.equals(Crud.CREATE)) {
 				Payload<MapItem, JsTask> pl = ServletUtils.getPayload(request, JsTask.class);
 				
 				Task task = JsTask.createTask(pl.data, ptz);
-                manager.addTask(task);
+                manager.addTask(task, pl.data.recurrenceRule);
+				if (pl.data.tags != null) manager.updateTaskTags(task.getTaskId(), pl.data.tags);
 				
+				uow.commit();
 				new JsonResult().printTo(out);
 				
 			} else if(crud.equals(Crud.UPDATE)) {
 				Payload<MapItem, JsTask> pl = ServletUtils.getPayload(request, JsTask.class);
 				
 				Task task = JsTask.createTask(pl.data, ptz);
-                manager.updateTask(task);
+                manager.updateTask(task, pl.data.recurrenceRule);
+				if (pl.data.tags != null) manager.updateTaskTags(task.getTaskId(), pl.data.tags);
 				
+				uow.commit();
 				new JsonResult().printTo(out);
 				
 			} else if(crud.equals(Crud.DELETE)) {
@@ -538,22 +665,55 @@ public class Service extends BaseService {
 				
 				manager.deleteTask(ids);
 				
+				uow.commit();
 				new JsonResult().printTo(out);
 				
 			} else if(crud.equals(Crud.MOVE)) {
-				String id = ServletUtils.getStringParameter(request, "id", true);
+				IntegerArray ids = ServletUtils.getObjectParameter(request, "ids", IntegerArray.class, false);
 				Integer categoryId = ServletUtils.getIntParameter(request, "targetCategoryId", true);
 				boolean copy = ServletUtils.getBooleanParameter(request, "copy", false);
 				
-				int taskId = Integer.parseInt(id);
-				manager.moveTask(copy, taskId, categoryId);
+				if (ids != null) {
+					manager.moveTasks(copy, ids, categoryId);
+				} else {
+					String id = ServletUtils.getStringParameter(request, "id", true);
+					int taskId = Integer.parseInt(id);
+					manager.moveTask(copy, taskId, categoryId);
+				}
 				
+				uow.commit();
 				new JsonResult().printTo(out);
 			}
 			
 		} catch(Exception ex) {
 			logger.error("Error in ManageTasks", ex);
 			new JsonResult(false, "Error").printTo(out);	
+		} finally {
+			uow.end();
+		}
+	}
+	
+	public void processUpdateTasksFields(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
+		try {
+			IntegerArray ids = ServletUtils.getObjectParameter(request, "ids", IntegerArray.class, true);
+			String status = ServletUtils.getStringParameter(request, "status", null);
+			int percentage = ServletUtils.getIntParameter(request, "percentage", -1);
+			int importance = ServletUtils.getIntParameter(request, "importance", -1);
+			String dueDate = ServletUtils.getStringParameter(request, "dueDate", null);
+			boolean subtree = ServletUtils.getBooleanParameter(request, "subtree", false);
+			
+			TaskChanges changes = new TaskChanges();
+			if (!StringUtils.isBlank(status)) changes.setStatus(EnumUtils.forSerializedName(status, Task.Status.class));
+			if (percentage >= 0) changes.setCompletionPercentage((short)percentage);
+			if (importance >= 0) changes.setImportance((short)importance);
+			if (dueDate != null) changes.setDueDate(DateTimeUtils.parseYmdHmsWithZone(StringUtils.defaultIfBlank(dueDate, null), DateTimeZone.UTC));
+			
+			manager.updateTasks(ids, changes, subtree);
+			new JsonResult().printTo(out);
+		
+		} catch(Exception ex) {
+			logger.error("Error in UpdateTasksFields", ex);
+			new JsonResult(false, "Error").printTo(out);
 		}
 	}
 	
@@ -592,6 +752,104 @@ public class Service extends BaseService {
 		}
 	}
 	
+	public void processExportTasks(HttpServletRequest request, HttpServletResponse response) {
+		try {
+			String filename = ServletUtils.getStringParameter(request, "filename", "tasks");
+			ServletUtils.IntegerArray categoryIds = ServletUtils.getObjectParameter(request, "categoryIds", ServletUtils.IntegerArray.class, true);
+			
+			ServletUtils.setContentDispositionHeader(response, "attachment", filename + ".ics");
+			response.setContentType("text/calendar; charset=UTF-8");
+			manager.exportTasks(categoryIds, response.getOutputStream());
+		
+		} catch(Exception ex) {
+			logger.error("Error in action ExportTasks", ex);
+			if (!response.isCommitted()) ServletUtils.writeErrorHandlingJs(response, ex.getMessage());
+		}
+	}
+	
+	public void processImportTasks(HttpServletRequest request, HttpServletResponse response) {
+		try {
+			Integer categoryId = ServletUtils.getIntParameter(request, "categoryId", true);
+			
+			// File content comes as raw request body and it's parsed as it arrives
+			TaskImportResult result = manager.importTasks(categoryId, request.getInputStream(), IMPORT_BATCH_SIZE);
+			response.setContentType("application/json; charset=UTF-8");
+			new JsonResult(result).printTo(response.getWriter());
+		
+		} catch(Exception ex) {
+			logger.error("Error in action ImportTasks", ex);
+			try {
+				response.setContentType("application/json; charset=UTF-8");
+				new JsonResult(false, ex.getMessage()).printTo(response.getWriter());
+			} catch(IOException ex1) { /* Do nothing... */ }
+		}
+	}
+	
+	public void processManageTaskAttachments(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
+		ArrayList<JsTaskAttachment> items = new ArrayList<>();
+		
+		try {
+			DateTimeZone ptz = getEnv().getProfile().getTimeZone();
+			
+			String crud = ServletUtils.getStringParameter(request, "crud", true);
+			Integer taskId = ServletUtils.getIntParameter(request, "taskId", true);
+			if (crud.equals(Crud.READ)) {
+				for (TaskAttachment att : manager.listTaskAttachments(taskId)) {
+					items.add(new JsTaskAttachment(att, ptz));
+				}
+				new JsonResult("attachments", items).printTo(out);
+			
+			} else if (crud.equals(Crud.DELETE)) {
+				String id = ServletUtils.getStringParameter(request, "id", true);
+				
+				manager.deleteTaskAttachment(taskId, id);
+				new JsonResult().printTo(out);
+			}
+		
+		} catch(Exception ex) {
+			logger.error("Error in ManageTaskAttachments", ex);
+			new JsonResult(false, "Error").printTo(out);
+		}
+	}
+	
+	public void processUploadTaskAttachment(HttpServletRequest request, HttpServletResponse response) {
+		try {
+			DateTimeZone ptz = getEnv().getProfile().getTimeZone();
+			Integer taskId = ServletUtils.getIntParameter(request, "taskId", true);
+			String filename = ServletUtils.getStringParameter(request, "filename", true);
+			
+			// File content comes as raw request body and it's streamed to disk as it arrives
+			TaskAttachment att = manager.addTaskAttachment(taskId, filename, request.getContentType(), request.getInputStream());
+			response.setContentType("application/json; charset=UTF-8");
+			new JsonResult(new JsTaskAttachment(att, ptz)).printTo(response.getWriter());
+		
+		} catch(Exception ex) {
+			logger.error("Error in action UploadTaskAttachment", ex);
+			try {
+				response.setContentType("application/json; charset=UTF-8");
+				new JsonResult(false, ex.getMessage()).printTo(response.getWriter());
+			} catch(IOException ex1) { /* Do nothing... */ }
+		}
+	}
+	
+	public void processDownloadTaskAttachment(HttpServletRequest request, HttpServletResponse response) {
+		try {
+			Integer taskId = ServletUtils.getIntParameter(request, "taskId", true);
+			String id = ServletUtils.getStringParameter(request, "id", true);
+			
+			TaskAttachment att = manager.getTaskAttachment(taskId, id);
+			if (att == null) throw new WTException("Attachment not found [{0}]", id);
+			ServletUtils.setContentDispositionHeader(response, "attachment", att.getFilename());
+			response.setContentType(StringUtils.defaultIfBlank(att.getMediaType(), "application/octet-stream"));
+			response.setHeader("Content-Length", String.valueOf(att.getSize()));
+			manager.transferTaskAttachment(taskId, id, Channels.newChannel(response.getOutputStream()));
+		
+		} catch(Exception ex) {
+			logger.error("Error in action DownloadTaskAttachment", ex);
+			if (!response.isCommitted()) ServletUtils.writeErrorHandlingJs(response, ex.getMessage());
+		}
+	}
+	
 	public void processPortletTasks(HttpServletRequest request, HttpServletResponse response, PrintWriter out) {
 		ArrayList<JsPletTasks> items = new ArrayList<>();
 		
@@ -609,16 +867,13 @@ public class Service extends BaseService {
 				}
 			} else {
 				final Set<Integer> ids = folders.keySet();
-				final String pattern = LangUtils.patternizeWords(query);
-				for (FolderTasks foTaskObj : manager.listFolderTasks(ids, pattern)) {
-					final ShareRootCategory root = rootByFolder.get(foTaskObj.folder.getCategoryId());
+				for (TaskEx task : manager.searchTasks(ids, query, PORTLET_SEARCH_MAX_RESULTS)) {
+					final ShareRootCategory root = rootByFolder.get(task.getCategoryId());
 					if (root == null) continue;
-					final ShareFolderCategory folder = folders.get(foTaskObj.folder.getCategoryId());
+					final ShareFolderCategory folder = folders.get(task.getCategoryId());
 					if (folder == null) continue;
 					
-					for (TaskEx task : foTaskObj.tasks) {
-						items.add(new JsPletTasks(root, folder, task, DateTimeZone.UTC));
-					}
+					items.add(new JsPletTasks(root, folder, task, DateTimeZone.UTC));
 				}
 			}
 			
@@ -792,6 +1047,10 @@ public class Service extends BaseService {
 		}
 	}
 	
+	private void notifyGridTasks(JsGridTasksDelta delta) {
+		getWts().notify(new ServiceMessage(SERVICE_ID, MSG_GRID_TASKS_CHANGED, delta));
+	}
+	
 	private ExtTreeNode createRootNode(ShareRootCategory root) {
 		if(root instanceof MyShareRootCategory) {
 			return createRootNode(root.getShareId(), root.getOwnerProfileId().toString(), root.getPerms().toString(), lookupResource(TasksLocale.CATEGORIES_MY), false, "wttasks-icon-root-my-xs").setExpanded(true);
@@ -851,4 +1110,42 @@ public class Service extends BaseService {
 		node.setChecked(visible);
 		return node;
 	}
+	
+	/**
+	 * Receives, from the {@link GridPushHub}, row-level changes of the 
+	 * categories displayed by the tasks grid of this session.
+	 */
+	private class GridViewer implements GridPushHub.Viewer {
+		
+		@Override
+		public boolean isViewing(int categoryId) {
+			synchronized(roots) {
+				if (checkedFolders == null) return false; // Service has been cleaned-up
+				return folders.containsKey(categoryId) && getVisibleFolderIds(false).contains(categoryId);
+			}
+		}
+		
+		@Override
+		public void push(int categoryId, List<TaskEx> upserts, Collection<Integer> removals) {
+			final ShareFolderCategory fold;
+			final CategoryPropSet foldProps;
+			synchronized(roots) {
+				fold = folders.get(categoryId);
+				foldProps = folderProps.get(categoryId);
+			}
+			if (fold == null) return;
+			
+			JsGridTasksDelta delta = new JsGridTasksDelta();
+			for (TaskEx te : upserts) {
+				delta.upserts.add(new JsGridTask(fold, foldProps, te, DateTimeZone.UTC));
+			}
+			delta.removals.addAll(removals);
+			if (!delta.isEmpty()) notifyGridTasks(delta);
+		}
+		
+		@Override
+		public void reload() {
+			notifyGridTasks(JsGridTasksDelta.reload());
+		}
+	}
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import com.sonicle.webtop.tasks.bol.model.TagFilter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches, for each category, the set of active task IDs and the tasks 
+ * carrying each tag as compressed {@link IdBitmap}s, so that tag filters 
+ * are evaluated in memory by means of bitwise set operations instead of 
+ * joining tags in every listing query. Entries are loaded on demand by the 
+ * manager and invalidated by local changes; they also expire after a short 
+ * while, picking up changes made by other nodes. Resulting IDs may include 
+ * tasks deleted (or moved) in the meantime: callers always look them up 
+ * again in the database, along with category and status conditions.
+ */
+public class TagIndex {
+	private static final TagIndex INSTANCE = new TagIndex();
+	private static final long EXPIRE_MILLIS = 60000L;
+	
+	private final HashMap<Integer, CategoryTags> entries = new HashMap<>();
+	private final HashMap<Integer, Long> versions = new HashMap<>();
+	private long clock = 0;
+	private long clearedVersion = 0;
+	
+	public static TagIndex getInstance() {
+		return INSTANCE;
+	}
+	
+	private TagIndex() {}
+	
+	/**
+	 * Returns the cached entry of a category, if still valid.
+	 * @param categoryId The category ID.
+	 * @param now Current time, in millis.
+	 * @return The entry, or null if it needs to be (re)loaded.
+	 */
+	public synchronized CategoryTags get(int categoryId, long now) {
+		CategoryTags entry = entries.get(categoryId);
+		if ((entry != null) && (now - entry.loadedAt >= EXPIRE_MILLIS)) {
+			entries.remove(categoryId);
+			return null;
+		}
+		return entry;
+	}
+	
+	/**
+	 * Returns the current version of a category: it must be taken before 
+	 * loading data and then passed to {@link #put}.
+	 * @param categoryId The category ID.
+	 * @return 
+	 */
+	public synchronized long version(int categoryId) {
+		Long version = versions.get(categoryId);
+		return Math.max((version != null) ? version : 0, clearedVersion);
+	}
+	
+	/**
+	 * Caches a loaded entry, unless the category has been invalidated 
+	 * while loading (the entry would be stale).
+	 * @param categoryId The category ID.
+	 * @param version The version returned by {@link #version} before loading.
+	 * @param entry The loaded entry.
+	 */
+	public synchronized void put(int categoryId, long version, CategoryTags entry) {
+		if (version(categoryId) == version) entries.put(categoryId, entry);
+	}
+	
+	public synchronized void invalidate(int categoryId) {
+		entries.remove(categoryId);
+		versions.put(categoryId, ++clock);
+	}
+	
+	public synchronized void invalidate(Collection<Integer> categoryIds) {
+		for (Integer categoryId : categoryIds) {
+			invalidate(categoryId);
+		}
+	}
+	
+	public synchronized void clear() {
+		entries.clear();
+		versions.clear();
+		clearedVersion = ++clock;
+	}
+	
+	/**
+	 * Immutable tag bitmaps of a single category.
+	 */
+	public static class CategoryTags {
+		private final IdBitmap taskIds;
+		private final Map<String, IdBitmap> taskIdsByTag;
+		private final long loadedAt;
+		
+		public CategoryTags(Collection<Integer> taskIds, Map<String, List<Integer>> taskIdsByTag, long loadedAt) {
+			this.taskIds = IdBitmap.of(taskIds);
+			HashMap<String, IdBitmap> map = new HashMap<>(taskIdsByTag.size());
+			for (Map.Entry<String, List<Integer>> entry : taskIdsByTag.entrySet()) {
+				map.put(entry.getKey(), IdBitmap.of(entry.getValue()));
+			}
+			this.taskIdsByTag = Collections.unmodifiableMap(map);
+			this.loadedAt = loadedAt;
+		}
+		
+		/**
+		 * Returns the IDs of the tasks matching passed filter.
+		 * @param filter The tag filter.
+		 * @return The matching IDs (not to be modified).
+		 */
+		public IdBitmap evaluate(TagFilter filter) {
+			IdBitmap result = taskIds;
+			for (String tag : filter.getAll()) {
+				if (result.isEmpty()) return result;
+				result = result.and(bitmap(tag));
+			}
+			if (!filter.getAny().isEmpty() && !result.isEmpty()) {
+				result = result.and(union(filter.getAny()));
+			}
+			if (!filter.getNone().isEmpty() && !result.isEmpty()) {
+				result = result.andNot(union(filter.getNone()));
+			}
+			return result;
+		}
+		
+		private IdBitmap bitmap(String tag) {
+			IdBitmap bitmap = taskIdsByTag.get(tag);
+			return (bitmap != null) ? bitmap : new IdBitmap();
+		}
+		
+		private IdBitmap union(Collection<String> tags) {
+			IdBitmap result = new IdBitmap();
+			for (String tag : tags) {
+				IdBitmap bitmap = taskIdsByTag.get(tag);
+				if (bitmap != null) result = result.or(bitmap);
+			}
+			return result;
+		}
+	}
+}
@@ -54,40 +54,79 @@ import com.sonicle.webtop.core.sdk.BaseManager;
 import com.sonicle.webtop.core.sdk.BaseReminder;
 import com.sonicle.webtop.core.sdk.ReminderEmail;
 import com.sonicle.webtop.core.sdk.ReminderInApp;
-import com.sonicle.webtop.core.sdk.UserProfile;
 import com.sonicle.webtop.core.sdk.UserProfileId;
 import com.sonicle.webtop.core.sdk.WTException;
 import com.sonicle.webtop.core.sdk.WTRuntimeException;
 import com.sonicle.webtop.core.util.IdentifierUtils;
+import com.sonicle.webtop.tasks.bol.OAttachment;
 import com.sonicle.webtop.tasks.bol.OCategory;
 import com.sonicle.webtop.tasks.bol.OCategoryPropSet;
+import com.sonicle.webtop.tasks.bol.ORecurrence;
 import com.sonicle.webtop.tasks.bol.OTask;
 import com.sonicle.webtop.tasks.bol.VTask;
+import com.sonicle.webtop.tasks.bol.model.ChangedTasks;
 import com.sonicle.webtop.tasks.bol.model.MyShareRootCategory;
+import com.sonicle.webtop.tasks.bol.model.TagFilter;
+import com.sonicle.webtop.tasks.bol.model.TaskAttachment;
+import com.sonicle.webtop.tasks.bol.model.TaskChanges;
+import com.sonicle.webtop.tasks.bol.model.TaskCursor;
+import com.sonicle.webtop.tasks.bol.model.TaskImportResult;
+import com.sonicle.webtop.tasks.bol.model.TaskNode;
+import com.sonicle.webtop.tasks.bol.model.TaskOccurrence;
+import com.sonicle.webtop.tasks.bol.model.TaskSubtreeStats;
+import com.sonicle.webtop.tasks.bol.model.TaskSyncToken;
 import com.sonicle.webtop.tasks.model.ShareFolderCategory;
 import com.sonicle.webtop.tasks.model.ShareRootCategory;
 import com.sonicle.webtop.tasks.model.Task;
+import com.sonicle.webtop.tasks.dal.AttachmentDAO;
 import com.sonicle.webtop.tasks.dal.CategoryDAO;
 import com.sonicle.webtop.tasks.dal.CategoryPropsDAO;
+import com.sonicle.webtop.tasks.dal.HierarchyDAO;
+import com.sonicle.webtop.tasks.dal.MovedTaskDAO;
+import com.sonicle.webtop.tasks.dal.RecurrenceDAO;
+import com.sonicle.webtop.tasks.dal.TagDAO;
 import com.sonicle.webtop.tasks.dal.TaskDAO;
+import com.sonicle.webtop.tasks.dal.UnitOfWork;
+import com.sonicle.webtop.tasks.event.CategoryChanged;
+import com.sonicle.webtop.tasks.event.TaskCreated;
+import com.sonicle.webtop.tasks.event.TaskDeleted;
+import com.sonicle.webtop.tasks.event.TaskEvent;
+import com.sonicle.webtop.tasks.event.TaskEventBus;
+import com.sonicle.webtop.tasks.event.TaskMoved;
+import com.sonicle.webtop.tasks.event.TaskUpdated;
+import com.sonicle.webtop.tasks.io.VTodoReader;
+import com.sonicle.webtop.tasks.io.VTodoWriter;
+import com.sonicle.webtop.tasks.jooq.tables.records.TasksRecord;
 import com.sonicle.webtop.tasks.model.Category;
 import com.sonicle.webtop.tasks.model.CategoryPropSet;
 import com.sonicle.webtop.tasks.model.FolderTasks;
 import com.sonicle.webtop.tasks.model.TaskEx;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.Connection;
+import java.nio.channels.WritableByteChannel;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.jooq.Cursor;
 import org.slf4j.Logger;
 
 /**
@@ -98,9 +137,22 @@ public class TasksManager extends BaseManager implements ITasksManager {
 	public static final Logger logger = WT.getLogger(TasksManager.class);
 	public static final String GROUPNAME_CATEGORY = "CATEGORY";
 	public static final String SUGGESTION_TASK_SUBJECT = "tasksubject";
+	public static final int TAG_MAX_LENGTH = 50;
+	private static final int CHANGES_SETTLE_SECONDS = 5;
+	private static final int SEARCH_MAX_RESULTS = 500;
+	private static final Comparator<OTask> CHANGES_ORDER = new Comparator<OTask>() {
+		@Override
+		public int compare(OTask o1, OTask o2) {
+			int ret = o1.getRevisionTimestamp().compareTo(o2.getRevisionTimestamp());
+			return (ret != 0) ? ret : o1.getTaskId().compareTo(o2.getTaskId());
+		}
+	};
+	private static final int REMINDERS_CLAIM_BATCH_SIZE = 200;
+	private static final String ICALENDAR_PRODID = "-//Sonicle//WebTop Tasks//EN";
 	
 	private final OwnerCache ownerCache = new OwnerCache();
 	private final ShareCache shareCache = new ShareCache();
+	private volatile long lastWriteMillis = 0;
 	
 	public TasksManager(boolean fastInit, UserProfileId targetProfileId) {
 		super(fastInit, targetProfileId);
@@ -109,6 +161,48 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		}
 	}
 	
+	/**
+	 * Returns a connection to the primary, joining the current unit of work (if any).
+	 */
+	private Connection getPrimaryConnection(boolean autoCommit) throws SQLException {
+		Connection con = UnitOfWork.joinCurrent(SERVICE_ID);
+		return (con != null) ? con : WT.getConnection(SERVICE_ID, autoCommit);
+	}
+	
+	/**
+	 * Returns a connection suitable for read-only queries.
+	 * When a read-only datasource is configured, it is used unless this 
+	 * manager wrote something within the read-your-writes window: in that 
+	 * case (or if the datasource is not available) the primary is used, 
+	 * so that recent changes are always visible to the writer.
+	 * Within a unit of work, its connection is used once opened by some 
+	 * work: until then, reads are served as if there were no unit.
+	 */
+	private Connection getReadConnection() throws SQLException {
+		Connection uowCon = UnitOfWork.joinCurrentIfOpen(SERVICE_ID);
+		if (uowCon != null) return uowCon;
+		TasksServiceSettings ss = new TasksServiceSettings(SERVICE_ID, "*");
+		String dataSourceName = ss.getReadOnlyDataSource();
+		if (!StringUtils.isBlank(dataSourceName) && ((System.currentTimeMillis() - lastWriteMillis) > ss.getReadOnlyDataSourceRywWindow() * 1000L)) {
+			try {
+				Connection con = WT.getConnection(SERVICE_ID, dataSourceName);
+				con.setReadOnly(true);
+				return con;
+			} catch(SQLException ex) {
+				logger.warn("Read-only datasource [{}] not available, using primary", dataSourceName, ex);
+			}
+		}
+		return WT.getConnection(SERVICE_ID);
+	}
+	
+	/**
+	 * Returns a connection to the primary, opening the read-your-writes window.
+	 */
+	private Connection getWriteConnection(boolean autoCommit) throws SQLException {
+		lastWriteMillis = System.currentTimeMillis();
+		return getPrimaryConnection(autoCommit);
+	}
+	
 	private TasksServiceSettings getServiceSettings() {
 		return new TasksServiceSettings(SERVICE_ID, getTargetProfileId().getDomainId());
 	}
@@ -212,7 +306,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
+			con = getReadConnection();
 			for (OCategory ocat : catDao.selectByProfile(con, pid.getDomainId(), pid.getUserId())) {
 				items.add(createCategory(ocat));
 			}
@@ -233,7 +327,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		try {
 			checkRightsOnCategoryFolder(categoryId, "READ");
 			
-			con = WT.getConnection(SERVICE_ID);
+			con = getReadConnection();
 			OCategory ocat = catDao.selectById(con, categoryId);
 			
 			return createCategory(ocat);
@@ -251,7 +345,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
+			con = getReadConnection();
 			OCategory ocat = catDao.selectBuiltInByProfile(con, getTargetProfileId().getDomainId(), getTargetProfileId().getUserId());
 			if(ocat == null) return null;
 			
@@ -273,10 +367,11 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		try {
 			checkRightsOnCategoryRoot(category.getProfileId(), "MANAGE");
 			
-			con = WT.getConnection(SERVICE_ID, false);
+			con = getWriteConnection(false);
 			category.setBuiltIn(false);
 			category = doCategoryUpdate(true, con, category);
 			DbUtils.commitQuietly(con);
+			publishAfterCommit(new CategoryChanged(getTargetProfileId(), category.getCategoryId(), CategoryChanged.Type.CREATED));
 			writeLog("CATEGORY_INSERT", String.valueOf(category.getCategoryId()));
 			
 			return category;
@@ -300,7 +395,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		try {
 			checkRightsOnCategoryRoot(getTargetProfileId(), "MANAGE");
 			
-			con = WT.getConnection(SERVICE_ID, false);
+			con = getWriteConnection(false);
 			OCategory ocat = dao.selectBuiltInByProfile(con, getTargetProfileId().getDomainId(), getTargetProfileId().getUserId());
 			if (ocat != null) {
 				logger.debug("Built-in category already present");
@@ -314,6 +409,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 			cat.setIsDefault(true);
 			cat = doCategoryUpdate(true, con, cat);
 			DbUtils.commitQuietly(con);
+			publishAfterCommit(new CategoryChanged(getTargetProfileId(), cat.getCategoryId(), CategoryChanged.Type.CREATED));
 			writeLog("CATEGORY_INSERT", String.valueOf(cat.getCategoryId()));
 			
 			return cat;
@@ -336,9 +432,10 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		try {
 			checkRightsOnCategoryFolder(cat.getCategoryId(), "UPDATE");
 			
-			con = WT.getConnection(SERVICE_ID, false);
+			con = getWriteConnection(false);
 			cat = doCategoryUpdate(false, con, cat);
 			DbUtils.commitQuietly(con);
+			publishAfterCommit(new CategoryChanged(getTargetProfileId(), cat.getCategoryId(), CategoryChanged.Type.UPDATED));
 			writeLog("CATEGORY_UPDATE", String.valueOf(cat.getCategoryId()));
 			
 			return cat;
@@ -367,7 +464,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 			String sharingId = buildSharingId(categoryId);
 			Sharing sharing = getSharing(sharingId);
 
-			con = WT.getConnection(SERVICE_ID, false);
+			con = getWriteConnection(false);
 			int ret = catDao.deleteById(con, categoryId);
 			psetDao.deleteByCategory(con, categoryId);
 			doDeleteTasksByCategory(con, categoryId);
@@ -381,6 +478,10 @@ public class TasksManager extends BaseManager implements ITasksManager {
 			
 			DbUtils.commitQuietly(con);
 			
+			touchCategoryRemindersAfterCommit(categoryId);
+			invalidateTagsAfterCommit(Arrays.asList(categoryId));
+			publishAfterCommit(new CategoryChanged(getTargetProfileId(), categoryId, CategoryChanged.Type.DELETED));
+			
 			final String ref = String.valueOf(categoryId);
 			writeLog("CATEGORY_DELETE", ref);
 			writeLog("TASK_DELETE", "*@"+ref);
@@ -408,7 +509,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
+			con = getReadConnection();
 			OCategoryPropSet opset = psetDao.selectByProfileCategory(con, profileId.getDomainId(), profileId.getUserId(), categoryId);
 			return (opset == null) ? new CategoryPropSet() : createCategoryPropSet(opset);
 			
@@ -429,7 +530,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
+			con = getReadConnection();
 			LinkedHashMap<Integer, CategoryPropSet> psets = new LinkedHashMap<>(categoryIds.size());
 			Map<Integer, OCategoryPropSet> map = psetDao.selectByProfileCategoryIn(con, profileId.getDomainId(), profileId.getUserId(), categoryIds);
 			for (Integer categoryId : categoryIds) {
@@ -461,7 +562,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 			opset.setUserId(profileId.getUserId());
 			opset.setCategoryId(categoryId);
 			
-			con = WT.getConnection(SERVICE_ID);
+			con = getWriteConnection(true);
 			try {
 				psetDao.insert(con, opset);
 			} catch(DAOIntegrityViolationException ex1) {
@@ -478,25 +579,71 @@ public class TasksManager extends BaseManager implements ITasksManager {
 	
 	@Override
 	public List<FolderTasks> listFolderTasks(Collection<Integer> categoryIds, String pattern) throws WTException {
+		return listFolderTasks(categoryIds, pattern, null);
+	}
+	
+	/**
+	 * Lists tasks of passed categories, optionally restricted by tags.
+	 * Tag filters are evaluated against the in-memory {@link TagIndex}: only 
+	 * matching IDs are then looked up in the database.
+	 * @param categoryIds The category IDs to look into.
+	 * @param pattern The pattern to match against subject and description.
+	 * @param tagFilter The tag filter, or null.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<FolderTasks> listFolderTasks(Collection<Integer> categoryIds, String pattern, TagFilter tagFilter) throws WTException {
 		CategoryDAO catDao = CategoryDAO.getInstance();
 		TaskDAO tasDao = TaskDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
-			
-			// TODO: implementare filtro task privati
-			ArrayList<FolderTasks> foTasks = new ArrayList<>();
+			con = getReadConnection();
 			List<OCategory> ocats = catDao.selectByDomainIn(con, getTargetProfileId().getDomainId(), categoryIds);
+			DbUtils.closeQuietly(con);
+			con = null;
+			
+			// Rights are evaluated upfront, without holding any connection
+			LinkedHashMap<Integer, OCategory> okCats = new LinkedHashMap<>();
 			for (OCategory ocat : ocats) {
 				if (!quietlyCheckRightsOnCategoryFolder(ocat.getCategoryId(), "READ")) continue;
-				
-				final List<VTask> vtasks = tasDao.viewByCategoryPattern(con, ocat.getCategoryId(), pattern);
-				final ArrayList<TaskEx> tasks = new ArrayList<>();
-				for (VTask vtask : vtasks) {
-					tasks.add(fillTaskEx(new TaskEx(), vtask));
+				okCats.put(ocat.getCategoryId(), ocat);
+			}
+			
+			ArrayList<FolderTasks> foTasks = new ArrayList<>();
+			if (okCats.isEmpty()) return foTasks;
+			
+			Integer[] taskIds = null;
+			if ((tagFilter != null) && !tagFilter.isEmpty()) {
+				TagFilter filter = new TagFilter(normalizeTags(tagFilter.getAll()), normalizeTags(tagFilter.getAny()), normalizeTags(tagFilter.getNone()));
+				IdBitmap matching = new IdBitmap();
+				for (Integer catId : okCats.keySet()) {
+					matching = matching.or(getCategoryTags(catId).evaluate(filter));
 				}
-				foTasks.add(new FolderTasks(createCategory(ocat), tasks));
+				taskIds = ArrayUtils.toObject(matching.toArray());
+			}
+			
+			// TODO: implementare filtro task privati
+			final List<VTask> vtasks;
+			if ((taskIds != null) && (taskIds.length == 0)) {
+				vtasks = new ArrayList<>();
+			} else {
+				con = getReadConnection();
+				vtasks = tasDao.viewByCategoriesPattern(con, okCats.keySet(), pattern, taskIds);
+				DbUtils.closeQuietly(con);
+				con = null;
+			}
+			
+			HashMap<Integer, ArrayList<TaskEx>> tasksByCat = new HashMap<>();
+			for (Integer catId : okCats.keySet()) {
+				tasksByCat.put(catId, new ArrayList<TaskEx>());
+			}
+			for (VTask vtask : vtasks) {
+				final ArrayList<TaskEx> tasks = tasksByCat.get(vtask.getCategoryId());
+				if (tasks != null) tasks.add(fillTaskEx(new TaskEx(), vtask));
+			}
+			for (OCategory ocat : okCats.values()) {
+				foTasks.add(new FolderTasks(createCategory(ocat), tasksByCat.get(ocat.getCategoryId())));
 			}
 			return foTasks;
 			
@@ -507,105 +654,176 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		}
 	}
 	
-	public List<TaskEx> listUpcomingTasks(Collection<Integer> categoryFolderIds) throws WTException {
-		return listUpcomingTasks(categoryFolderIds, null);
-	}
-	
-	public List<TaskEx> listUpcomingTasks(Collection<Integer> categoryFolderIds, String pattern) throws WTException {
+	public List<TaskEx> listTasks(Collection<Integer> categoryFolderIds, String pattern, TaskCursor after, int limit) throws WTException {
 		TaskDAO tasDao = TaskDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
-			
 			ArrayList<Integer> validIds = new ArrayList<>();
-			for(Integer catId : categoryFolderIds) {
+			for (Integer catId : categoryFolderIds) {
 				if (!quietlyCheckRightsOnCategoryFolder(catId, "READ")) continue;
 				validIds.add(catId);
 			}
 			
 			ArrayList<TaskEx> items = new ArrayList<>();
-			List<VTask> vtasks = tasDao.viewUpcomingByCategoriesPattern(con, validIds, pattern);
-			for(VTask vtask : vtasks) {
+			if (validIds.isEmpty()) return items;
+			
+			con = getReadConnection();
+			String afterSubject = ((after != null) && after.isValid()) ? after.getSubject() : null;
+			Integer afterTaskId = ((after != null) && after.isValid()) ? after.getTaskId() : null;
+			List<VTask> vtasks = tasDao.viewByCategoriesPatternSeek(con, validIds, pattern, afterSubject, afterTaskId, limit);
+			for (VTask vtask : vtasks) {
 				items.add(fillTaskEx(new TaskEx(), vtask));
 			}
-			
 			return items;
-			
+		
 		} catch(SQLException | DAOException ex) {
 			throw new WTException(ex, "DB error");
 		} finally {
 			DbUtils.closeQuietly(con);
 		}
 	}
-    
-	@Override
-	public Task getTask(int taskId) throws WTException {
-		TaskDAO tasdao = TaskDAO.getInstance();
+	
+	/**
+	 * Lists the specified tasks, as they are now, within a category.
+	 * Tasks that are deleted (or moved elsewhere) are simply not returned.
+	 * Rights are NOT checked: rows are loaded once for all the sessions 
+	 * viewing the category (see {@link GridPushHub}).
+	 * @param categoryId The category ID.
+	 * @param taskIds The task IDs to look for.
+	 * @return
+	 * @throws WTException 
+	 */
+	static List<TaskEx> listTasksByIdsForPush(int categoryId, Collection<Integer> taskIds) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
-			
-			OTask otask = tasdao.selectById(con, taskId);
-			if (otask == null) return null;
-			checkRightsOnCategoryFolder(otask.getCategoryId(), "READ");
+			ArrayList<TaskEx> items = new ArrayList<>();
+			if (taskIds.isEmpty()) return items;
 			
-			return createTask(otask);
+			con = WT.getConnection(SERVICE_ID);
+			List<VTask> vtasks = tasDao.viewByCategoriesPattern(con, Arrays.asList(categoryId), null, taskIds.toArray(new Integer[taskIds.size()]));
+			for (VTask vtask : vtasks) {
+				items.add(fillTaskEx(new TaskEx(), vtask));
+			}
+			return items;
 		
 		} catch(SQLException | DAOException ex) {
 			throw new WTException(ex, "DB error");
-		} catch(WTException ex) {
-			throw ex;
 		} finally {
 			DbUtils.closeQuietly(con);
 		}
 	}
 	
-	@Override
-	public void addTask(Task task) throws WTException {
-		CoreManager coreMgr = WT.getCoreManager(getTargetProfileId());
+	/**
+	 * Lists a page of the tasks hierarchy: the direct children of a task, 
+	 * or root tasks, each one carrying the roll-up of its subtree. Deeper 
+	 * levels are fetched on demand, so categories are never loaded at once.
+	 * @param categoryFolderIds The category IDs to look into.
+	 * @param parentTaskId The parent task ID, or null to list root tasks.
+	 * @param after Position returned by the previous page, or null.
+	 * @param limit Max number of tasks to return.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<TaskNode> listTaskTreePage(Collection<Integer> categoryFolderIds, Integer parentTaskId, TaskCursor after, int limit) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			checkRightsOnCategoryElements(task.getCategoryId(), "CREATE"); // Rights check!
+			ArrayList<Integer> validIds = new ArrayList<>();
+			for (Integer catId : categoryFolderIds) {
+				if (!quietlyCheckRightsOnCategoryFolder(catId, "READ")) continue;
+				validIds.add(catId);
+			}
 			
-			con = WT.getConnection(SERVICE_ID, false);
-			OTask otask = doUpdateTask(true, con, task);
-			DbUtils.commitQuietly(con);
-			writeLog("TASK_INSERT", String.valueOf(otask.getTaskId()));
+			ArrayList<TaskNode> items = new ArrayList<>();
+			if (validIds.isEmpty()) return items;
 			
-			storeAsSuggestion(coreMgr, SUGGESTION_TASK_SUBJECT, task.getSubject());
+			con = getReadConnection();
+			String afterSubject = ((after != null) && after.isValid()) ? after.getSubject() : null;
+			Integer afterTaskId = ((after != null) && after.isValid()) ? after.getTaskId() : null;
+			List<VTask> vtasks = tasDao.viewChildrenByCategoriesSeek(con, validIds, parentTaskId, afterSubject, afterTaskId, limit);
+			return createTaskNodes(con, vtasks);
+		
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Returns the whole subtree rooted at the passed task, root included.
+	 * @param taskId The subtree root.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<TaskNode> listTaskSubtree(int taskId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			con = getReadConnection();
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			checkRightsOnCategoryFolder(categoryIdsByTask.get(taskId), "READ");
 			
+			return createTaskNodes(con, tasDao.viewSubtreeById(con, taskId));
+		
 		} catch(SQLException | DAOException ex) {
-			DbUtils.rollbackQuietly(con);
 			throw new WTException(ex, "DB error");
-		} catch(Exception ex) {
-			DbUtils.rollbackQuietly(con);
-			throw ex;
 		} finally {
 			DbUtils.closeQuietly(con);
 		}
 	}
 	
-	@Override
-	public void updateTask(Task task) throws WTException {
+	/**
+	 * Moves a task, together with its whole subtree, under another parent.
+	 * The parent must belong to the same category and cannot be a node 
+	 * of the moved subtree.
+	 * @param taskId The subtree root.
+	 * @param parentTaskId The new parent task ID, or null to make it a root task.
+	 * @throws WTException 
+	 */
+	public void moveTaskSubtree(int taskId, Integer parentTaskId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		HierarchyDAO hieDao = HierarchyDAO.getInstance();
 		Connection con = null;
 		
-		//TODO: gestire i suggerimenti (soggetto)
-
 		try {
-			checkRightsOnCategoryElements(task.getCategoryId(), "UPDATE"); // Rights check!
-
-			con = WT.getConnection(SERVICE_ID, false);
-			doUpdateTask(false, con, task);
+			con = getWriteConnection(true);
+			ArrayList<Integer> ids = new ArrayList<>();
+			ids.add(taskId);
+			if (parentTaskId != null) ids.add(parentTaskId);
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, ids);
+			for (Integer id : ids) {
+				if (!categoryIdsByTask.containsKey(id)) throw new WTException("Unable to retrieve task [{0}]", id);
+			}
+			int categoryId = categoryIdsByTask.get(taskId);
+			checkRightsOnCategoryElements(categoryId, "UPDATE"); // Rights check!
+			if (parentTaskId != null) {
+				if (categoryId != categoryIdsByTask.get(parentTaskId)) throw new WTException("Parent task [{0}] belongs to another category", parentTaskId);
+				if ((taskId == parentTaskId) || hieDao.existsPath(con, taskId, parentTaskId)) throw new WTException("Task [{0}] cannot be moved within its own subtree", taskId);
+			}
+			
+			con.setAutoCommit(false);
+			// Old and new parents are involved too: their subtree roll-up changes
+			LinkedHashSet<Integer> involvedIds = new LinkedHashSet<>(ids);
+			Integer oldParentId = hieDao.selectParentId(con, taskId);
+			if (oldParentId != null) involvedIds.add(oldParentId);
+			hieDao.deleteSubtreeLinks(con, taskId);
+			if (parentTaskId != null) hieDao.insertSubtreeLinks(con, taskId, parentTaskId);
+			tasDao.updateRevision(con, taskId, createRevisionTimestamp());
 			DbUtils.commitQuietly(con);
-			writeLog("TASK_UPDATE", String.valueOf(task.getTaskId()));
-
-		} catch (SQLException | DAOException ex) {
+			publishAfterCommit(new TaskUpdated(getTargetProfileId(), categoryId, involvedIds));
+			writeLog("TASK_UPDATE", String.valueOf(taskId));
+		
+		} catch(SQLException | DAOException ex) {
 			DbUtils.rollbackQuietly(con);
 			throw new WTException(ex, "DB error");
-		} catch (Exception ex) {
+		} catch(Exception ex) {
 			DbUtils.rollbackQuietly(con);
 			throw ex;
 		} finally {
@@ -613,146 +831,1143 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		}
 	}
 	
-	@Override
-	public void deleteTask(int taskId) throws WTException {
-		TaskDAO tasdao = TaskDAO.getInstance();
+	/**
+	 * Runs a full-text search over subject and description of tasks 
+	 * belonging to passed categories; results are sorted by relevance.
+	 * @param categoryFolderIds The category IDs in which to search.
+	 * @param query The user's search text.
+	 * @param limit Max number of results, capped (also when not positive) to {@value #SEARCH_MAX_RESULTS}.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<TaskEx> searchTasks(Collection<Integer> categoryFolderIds, String query, int limit) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
 		Connection con = null;
-
+		
 		try {
-			con = WT.getConnection(SERVICE_ID);
-
-			OTask cont = tasdao.selectById(con, taskId);
-			if (cont == null) throw new WTException("Unable to retrieve task [{0}]", taskId);
-			checkRightsOnCategoryElements(cont.getCategoryId(), "DELETE"); // Rights check!
-
-			con.setAutoCommit(false);
-			doDeleteTask(con, taskId);
-			DbUtils.commitQuietly(con);
-			writeLog("TASK_DELETE", String.valueOf(taskId));
-
+			ArrayList<Integer> validIds = new ArrayList<>();
+			for (Integer catId : categoryFolderIds) {
+				if (!quietlyCheckRightsOnCategoryFolder(catId, "READ")) continue;
+				validIds.add(catId);
+			}
+			
+			ArrayList<TaskEx> items = new ArrayList<>();
+			if (validIds.isEmpty() || StringUtils.isBlank(query)) return items;
+			
+			con = getReadConnection();
+			final int max = ((limit > 0) && (limit < SEARCH_MAX_RESULTS)) ? limit : SEARCH_MAX_RESULTS;
+			List<VTask> vtasks = tasDao.viewByCategoriesQuery(con, validIds, query, max);
+			for (VTask vtask : vtasks) {
+				items.add(fillTaskEx(new TaskEx(), vtask));
+			}
+			return items;
+		
 		} catch (SQLException | DAOException ex) {
-			DbUtils.rollbackQuietly(con);
 			throw new WTException(ex, "DB error");
-		} catch (Exception ex) {
-			DbUtils.rollbackQuietly(con);
-			throw ex;
 		} finally {
 			DbUtils.closeQuietly(con);
 		}
 	}
 	
-	@Override
-	public void deleteTask(ArrayList<Integer> taskIds) throws WTException {
-		TaskDAO tasdao = TaskDAO.getInstance();
+	public List<TaskEx> listUpcomingTasks(Collection<Integer> categoryFolderIds) throws WTException {
+		return listUpcomingTasks(categoryFolderIds, null);
+	}
+	
+	public List<TaskEx> listUpcomingTasks(Collection<Integer> categoryFolderIds, String pattern) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
-			con.setAutoCommit(false);
+			con = getReadConnection();
 			
-			for(Integer taskId : taskIds) {
-				if (taskId == null) continue;
-				OTask task = tasdao.selectById(con, taskId);
-				if (task == null) throw new WTException("Unable to retrieve task [{0}]", taskId);
-				checkRightsOnCategoryElements(task.getCategoryId(), "DELETE"); // Rights check!
-				
-				doDeleteTask(con, taskId);
+			ArrayList<Integer> validIds = new ArrayList<>();
+			for(Integer catId : categoryFolderIds) {
+				if (!quietlyCheckRightsOnCategoryFolder(catId, "READ")) continue;
+				validIds.add(catId);
 			}
 			
-			DbUtils.commitQuietly(con);
-			writeLog("TASK_DELETE", "*");
+			ArrayList<TaskEx> items = new ArrayList<>();
+			List<VTask> vtasks = tasDao.viewUpcomingByCategoriesPattern(con, validIds, pattern);
+			for(VTask vtask : vtasks) {
+				items.add(fillTaskEx(new TaskEx(), vtask));
+			}
+			
+			return items;
 			
 		} catch(SQLException | DAOException ex) {
-			DbUtils.rollbackQuietly(con);
 			throw new WTException(ex, "DB error");
-		} catch(Exception ex) {
-			DbUtils.rollbackQuietly(con);
-			throw ex;
 		} finally {
 			DbUtils.closeQuietly(con);
 		}
 	}
-	
-	@Override
-	public int deleteAllTasks(int categoryId) throws WTException {
+    
+	/**
+	 * Expands recurring tasks of passed categories within the requested 
+	 * window. Occurrences are computed in memory, walking each series from 
+	 * the one currently held by the task row: nothing is written.
+	 * @param categoryFolderIds The category IDs to look into.
+	 * @param from Window lower bound (inclusive).
+	 * @param to Window upper bound (exclusive).
+	 * @param maxPerSeries Max number of occurrences returned for each series.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<TaskOccurrence> listTaskOccurrences(Collection<Integer> categoryFolderIds, DateTime from, DateTime to, int maxPerSeries) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		RecurrenceDAO recDao = RecurrenceDAO.getInstance();
 		Connection con = null;
-
+		
 		try {
-			checkRightsOnCategoryElements(categoryId, "DELETE");
-
-			con = WT.getConnection(SERVICE_ID, false);
-			int ret = doDeleteTasksByCategory(con, categoryId);
-			DbUtils.commitQuietly(con);
-			writeLog("TASK_DELETE", "*");
+			ArrayList<Integer> validIds = new ArrayList<>();
+			for (Integer catId : categoryFolderIds) {
+				if (!quietlyCheckRightsOnCategoryFolder(catId, "READ")) continue;
+				validIds.add(catId);
+			}
 			
-			return ret;
-
+			ArrayList<TaskOccurrence> items = new ArrayList<>();
+			if (validIds.isEmpty()) return items;
+			
+			con = getReadConnection();
+			List<VTask> vtasks = tasDao.viewRecurringByCategoriesUntil(con, validIds, to);
+			if (vtasks.isEmpty()) return items;
+			ArrayList<Integer> taskIds = new ArrayList<>(vtasks.size());
+			for (VTask vtask : vtasks) {
+				taskIds.add(vtask.getTaskId());
+			}
+			Map<Integer, ORecurrence> orecs = recDao.selectByIds(con, taskIds);
+			
+			for (VTask vtask : vtasks) {
+				ORecurrence orec = orecs.get(vtask.getTaskId());
+				if (orec == null) continue;
+				RecurrenceRule rule;
+				try {
+					rule = RecurrenceRule.parse(orec.getRule());
+				} catch(IllegalArgumentException ex) {
+					logger.warn("Invalid recurrence rule on task [{}]: {}", vtask.getTaskId(), ex.getMessage());
+					continue;
+				}
+				
+				DateTime current = occurrenceDate(vtask);
+				TaskEx task = fillTaskEx(new TaskEx(), vtask);
+				for (DateTime dt : rule.between(orec.getStartDate(), current, orec.getOccurrence(), from, to, maxPerSeries)) {
+					items.add(new TaskOccurrence(task, shiftToOccurrence(vtask.getStartDate(), current, dt), shiftToOccurrence(vtask.getDueDate(), current, dt)));
+				}
+			}
+			return items;
+		
 		} catch (SQLException | DAOException ex) {
-			DbUtils.rollbackQuietly(con);
 			throw new WTException(ex, "DB error");
-		} catch (Exception ex) {
-			DbUtils.rollbackQuietly(con);
-			throw ex;
 		} finally {
 			DbUtils.closeQuietly(con);
 		}
 	}
 	
-	@Override
-	public void moveTask(boolean copy, int taskId, int targetCategoryId) throws WTException {
-		TaskDAO tasdao = TaskDAO.getInstance();
+	/**
+	 * Returns the recurrence rule (RRULE) of the passed task.
+	 * @param taskId The task ID.
+	 * @return The rule, or null if the task is not recurring.
+	 * @throws WTException 
+	 */
+	public String getTaskRecurrence(int taskId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		RecurrenceDAO recDao = RecurrenceDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
-			OTask otask = tasdao.selectById(con, taskId);
-			if (otask == null) throw new WTException("Unable to retrieve task [{0}]", taskId);
-			checkRightsOnCategoryFolder(otask.getCategoryId(), "READ");
-			
-			if (copy || (targetCategoryId != otask.getCategoryId())) {
-				checkRightsOnCategoryElements(targetCategoryId, "CREATE");
-				if (!copy) checkRightsOnCategoryElements(otask.getCategoryId(), "DELETE");
-				
-				Task task = createTask(otask);
-
-				con.setAutoCommit(false);
-				doMoveTask(con, copy, task, targetCategoryId);
-				DbUtils.commitQuietly(con);
-				writeLog("TASK_UPDATE", String.valueOf(task.getTaskId()));
-			}
+			con = getReadConnection();
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			checkRightsOnCategoryFolder(categoryIdsByTask.get(taskId), "READ");
 			
+			ORecurrence orec = recDao.selectById(con, taskId);
+			return (orec != null) ? orec.getRule() : null;
+		
 		} catch(SQLException | DAOException ex) {
-			DbUtils.rollbackQuietly(con);
 			throw new WTException(ex, "DB error");
-		} catch(Exception ex) {
-			DbUtils.rollbackQuietly(con);
-			throw ex;
 		} finally {
 			DbUtils.closeQuietly(con);
 		}
 	}
 	
-	public void eraseData(boolean deep) throws WTException {
-		CategoryDAO catDao = CategoryDAO.getInstance();
-		CategoryPropsDAO psetDao = CategoryPropsDAO.getInstance();
+	/**
+	 * Returns the tags of the passed task, sorted.
+	 * @param taskId The task ID.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<String> getTaskTags(int taskId) throws WTException {
 		TaskDAO tasDao = TaskDAO.getInstance();
+		TagDAO tagDao = TagDAO.getInstance();
 		Connection con = null;
 		
-		//TODO: controllo permessi
+		try {
+			con = getReadConnection();
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			checkRightsOnCategoryFolder(categoryIdsByTask.get(taskId), "READ");
+			
+			return tagDao.selectByTask(con, taskId);
+		
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Replaces the tags of the passed task. Tags are normalized (trimmed, 
+	 * lower-cased and truncated to {@link #TAG_MAX_LENGTH}); blanks and 
+	 * duplicates are discarded.
+	 * @param taskId The task ID.
+	 * @param tags The new tags.
+	 * @throws WTException 
+	 */
+	public void updateTaskTags(int taskId, Collection<String> tags) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		TagDAO tagDao = TagDAO.getInstance();
+		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID, false);
-			UserProfileId pid = getTargetProfileId();
+			con = getWriteConnection(false);
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			int categoryId = categoryIdsByTask.get(taskId);
+			checkRightsOnCategoryElements(categoryId, "UPDATE"); // Rights check!
+			
+			tagDao.deleteByTask(con, taskId);
+			Set<String> normTags = normalizeTags(tags);
+			if (!normTags.isEmpty()) tagDao.batchInsert(con, taskId, normTags);
+			tasDao.updateRevision(con, taskId, createRevisionTimestamp());
+			DbUtils.commitQuietly(con);
+			invalidateTagsAfterCommit(Arrays.asList(categoryId));
+			publishAfterCommit(new TaskUpdated(getTargetProfileId(), categoryId, Arrays.asList(taskId)));
+			writeLog("TASK_UPDATE", String.valueOf(taskId));
+		
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Returns all distinct tags in use within passed categories.
+	 * @param categoryFolderIds The category IDs to look into.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<String> listTags(Collection<Integer> categoryFolderIds) throws WTException {
+		TagDAO tagDao = TagDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			ArrayList<Integer> validIds = new ArrayList<>();
+			for (Integer catId : categoryFolderIds) {
+				if (!quietlyCheckRightsOnCategoryFolder(catId, "READ")) continue;
+				validIds.add(catId);
+			}
+			if (validIds.isEmpty()) return new ArrayList<String>();
+			
+			con = getReadConnection();
+			return tagDao.selectDistinctByCategories(con, validIds);
+		
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Lists the attachments of a task (metadata only).
+	 * @param taskId The task ID.
+	 * @return
+	 * @throws WTException 
+	 */
+	public List<TaskAttachment> listTaskAttachments(int taskId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		AttachmentDAO attDao = AttachmentDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			con = getReadConnection();
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			checkRightsOnCategoryFolder(categoryIdsByTask.get(taskId), "READ");
+			
+			ArrayList<TaskAttachment> items = new ArrayList<>();
+			for (OAttachment oatt : attDao.selectByTask(con, taskId)) {
+				items.add(createTaskAttachment(oatt));
+			}
+			return items;
+		
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	public TaskAttachment getTaskAttachment(int taskId, String attachmentId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		AttachmentDAO attDao = AttachmentDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			con = getReadConnection();
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			checkRightsOnCategoryFolder(categoryIdsByTask.get(taskId), "READ");
+			
+			OAttachment oatt = attDao.selectByIdTask(con, attachmentId, taskId);
+			return (oatt != null) ? createTaskAttachment(oatt) : null;
+		
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Attaches a file to a task. Data is streamed into the attachments 
+	 * store as it arrives, before touching the database: no connection is 
+	 * held during the upload.
+	 * @param taskId The task ID.
+	 * @param filename The file name.
+	 * @param mediaType The media type, or null.
+	 * @param is The file content.
+	 * @return The new attachment.
+	 * @throws WTException 
+	 */
+	public TaskAttachment addTaskAttachment(int taskId, String filename, String mediaType, InputStream is) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		AttachmentDAO attDao = AttachmentDAO.getInstance();
+		AttachmentStore store = getAttachmentStore();
+		String attachmentId = null;
+		boolean committed = false;
+		Connection con = null;
+		
+		try {
+			con = getReadConnection();
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			DbUtils.closeQuietly(con);
+			con = null;
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			int categoryId = categoryIdsByTask.get(taskId);
+			checkRightsOnCategoryElements(categoryId, "UPDATE"); // Rights check!
+			
+			attachmentId = UUID.randomUUID().toString();
+			long size = store.write(attachmentId, is, getServiceSettings().getAttachmentsMaxSize());
+			
+			DateTime revisionTimestamp = createRevisionTimestamp();
+			OAttachment oatt = new OAttachment();
+			oatt.setAttachmentId(attachmentId);
+			oatt.setTaskId(taskId);
+			oatt.setRevisionTimestamp(revisionTimestamp);
+			oatt.setFilename(StringUtils.left(StringUtils.defaultIfBlank(filename, attachmentId), 255));
+			oatt.setSize(size);
+			oatt.setMediaType(StringUtils.left(mediaType, 255));
+			
+			con = getWriteConnection(false);
+			attDao.insert(con, oatt);
+			tasDao.updateRevision(con, taskId, revisionTimestamp);
+			DbUtils.commitQuietly(con);
+			committed = true;
+			publishAfterCommit(new TaskUpdated(getTargetProfileId(), categoryId, Arrays.asList(taskId)));
+			writeLog("TASK_UPDATE", String.valueOf(taskId));
+			
+			return createTaskAttachment(oatt);
+		
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(AttachmentStore.SizeLimitExceededException ex) {
+			throw new WTException(ex, "Attachment too large [{0}]", filename);
+		} catch(IOException ex) {
+			throw new WTException(ex, "Unable to store attachment [{0}]", filename);
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+			if ((attachmentId != null) && !committed) deleteAttachmentPayloads(store, Arrays.asList(attachmentId));
+		}
+	}
+	
+	/**
+	 * Copies the content of an attachment into passed channel.
+	 * @param taskId The task ID.
+	 * @param attachmentId The attachment ID.
+	 * @param target The destination channel.
+	 * @return The number of bytes transferred.
+	 * @throws WTException 
+	 */
+	public long transferTaskAttachment(int taskId, String attachmentId, WritableByteChannel target) throws WTException {
+		TaskAttachment att = getTaskAttachment(taskId, attachmentId);
+		if (att == null) throw new WTException("Unable to retrieve attachment [{0}]", attachmentId);
+		
+		try {
+			return getAttachmentStore().transferTo(att.getAttachmentId(), target);
+		} catch(IOException ex) {
+			throw new WTException(ex, "Unable to read attachment [{0}]", attachmentId);
+		}
+	}
+	
+	public void deleteTaskAttachment(int taskId, String attachmentId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		AttachmentDAO attDao = AttachmentDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			con = getWriteConnection(false);
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, Arrays.asList(taskId));
+			if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			int categoryId = categoryIdsByTask.get(taskId);
+			checkRightsOnCategoryElements(categoryId, "UPDATE"); // Rights check!
+			
+			int ret = attDao.deleteByIdTask(con, attachmentId, taskId);
+			if (ret == 0) throw new WTException("Unable to retrieve attachment [{0}]", attachmentId);
+			tasDao.updateRevision(con, taskId, createRevisionTimestamp());
+			DbUtils.commitQuietly(con);
+			deleteAttachmentPayloadsAfterCommit(Arrays.asList(attachmentId));
+			publishAfterCommit(new TaskUpdated(getTargetProfileId(), categoryId, Arrays.asList(taskId)));
+			writeLog("TASK_UPDATE", String.valueOf(taskId));
+		
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Returns tasks added, modified or deleted in passed categories after the 
+	 * specified sync token, in revision order.
+	 * <ul>
+	 * <li>Without a token (initial sync) only active tasks are returned; 
+	 * pages following a token include deletions too.</li>
+	 * <li>Tasks moved to another category are reported as deleted in the 
+	 * source category and as modified in the target one.</li>
+	 * <li>Tokens older than the tombstone retention are rejected, since 
+	 * deletions may have been purged meanwhile: a full resync is required 
+	 * (see {@link ChangedTasks#isResyncRequired()}).</li>
+	 * </ul>
+	 * Revision timestamps are assigned before commit, so changes younger 
+	 * than {@value #CHANGES_SETTLE_SECONDS} seconds are held back to let 
+	 * in-flight transactions settle. A change committed later than that 
+	 * after its timestamp (eg. a long unit of work or import, or nodes with 
+	 * skewed clocks) may be skipped by clients synced in between: writers 
+	 * must keep transactions short and nodes clocks in sync.
+	 * @param categoryFolderIds The category IDs to look into.
+	 * @param syncToken Token returned by the previous call, or null to start over.
+	 * @param limit Max number of changes to return.
+	 * @return
+	 * @throws WTException 
+	 */
+	public ChangedTasks listChangedTasks(Collection<Integer> categoryFolderIds, TaskSyncToken syncToken, int limit) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			ArrayList<Integer> validIds = new ArrayList<>();
+			for (Integer catId : categoryFolderIds) {
+				if (!quietlyCheckRightsOnCategoryFolder(catId, "READ")) continue;
+				validIds.add(catId);
+			}
+			
+			if (syncToken != null) {
+				int retentionDays = Math.max(new TasksServiceSettings(SERVICE_ID, "*").getTombstoneRetentionDays(), 1);
+				if (syncToken.getRevisionTimestamp().isBefore(createRevisionTimestamp().minusDays(retentionDays))) {
+					return ChangedTasks.resyncRequired();
+				}
+			}
+			
+			ArrayList<Task> items = new ArrayList<>();
+			if (validIds.isEmpty()) return new ChangedTasks(items, syncToken, false);
+			
+			con = getPrimaryConnection(true);
+			DateTime afterTimestamp = (syncToken != null) ? syncToken.getRevisionTimestamp() : null;
+			Integer afterTaskId = (syncToken != null) ? syncToken.getTaskId() : null;
+			DateTime until = createRevisionTimestamp().minusSeconds(CHANGES_SETTLE_SECONDS);
+			
+			// Fetch one more row than needed to know if there are other changes
+			ArrayList<OTask> otasks = new ArrayList<>(tasDao.selectChangedByCategories(con, validIds, afterTimestamp, afterTaskId, until, limit + 1));
+			if (syncToken != null) {
+				otasks.addAll(MovedTaskDAO.getInstance().selectChangedByCategories(con, validIds, afterTimestamp, afterTaskId, until, limit + 1));
+				Collections.sort(otasks, CHANGES_ORDER);
+			}
+			
+			TaskSyncToken nextToken = syncToken;
+			OTask last = null;
+			int count = 0;
+			for (OTask otask : otasks) {
+				// The same task may be in two categories at the same position 
+				// (departure and arrival): never split them across pages
+				if ((count >= limit) && ((last == null) || (CHANGES_ORDER.compare(last, otask) != 0))) break;
+				items.add(createTask(otask));
+				nextToken = new TaskSyncToken(otask.getRevisionTimestamp(), otask.getTaskId());
+				last = otask;
+				count++;
+			}
+			return new ChangedTasks(items, nextToken, otasks.size() > count);
+		
+		} catch (SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	@Override
+	public Task getTask(int taskId) throws WTException {
+		TaskDAO tasdao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			con = getReadConnection();
+			
+			OTask otask = tasdao.selectById(con, taskId);
+			if (otask == null) return null;
+			checkRightsOnCategoryFolder(otask.getCategoryId(), "READ");
+			
+			return createTask(otask);
+		
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} catch(WTException ex) {
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	@Override
+	public void addTask(Task task) throws WTException {
+		addTask(task, null);
+	}
+	
+	/**
+	 * Inserts a task, optionally making it recurring.
+	 * @param task The task to insert.
+	 * @param recurrenceRule The recurrence rule (RRULE), or null.
+	 * @throws WTException 
+	 */
+	public void addTask(Task task, String recurrenceRule) throws WTException {
+		CoreManager coreMgr = WT.getCoreManager(getTargetProfileId());
+		Connection con = null;
+		
+		try {
+			checkRightsOnCategoryElements(task.getCategoryId(), "CREATE"); // Rights check!
+			
+			con = getWriteConnection(false);
+			OTask otask = doUpdateTask(true, con, task);
+			if (!StringUtils.isBlank(recurrenceRule)) doUpdateTaskRecurrence(con, otask, recurrenceRule);
+			DbUtils.commitQuietly(con);
+			task.setTaskId(otask.getTaskId());
+			touchRemindersAfterCommit(Arrays.asList(otask.getTaskId()));
+			invalidateTagsAfterCommit(Arrays.asList(otask.getCategoryId()));
+			publishAfterCommit(new TaskCreated(getTargetProfileId(), otask.getCategoryId(), Arrays.asList(otask.getTaskId())));
+			writeLog("TASK_INSERT", String.valueOf(otask.getTaskId()));
+			
+			storeAsSuggestion(coreMgr, SUGGESTION_TASK_SUBJECT, task.getSubject());
+			
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Inserts many tasks at once, within a single transaction.
+	 * IDs are reserved in a single round-trip and rows are sent using JDBC 
+	 * batching; rights are checked once for every involved category.
+	 * Generated IDs are set back onto passed tasks once committed.
+	 * @param tasks The tasks to insert.
+	 * @throws WTException 
+	 */
+	public void addTasks(Collection<Task> tasks) throws WTException {
+		CoreManager coreMgr = WT.getCoreManager(getTargetProfileId());
+		TaskDAO tasDao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		if ((tasks == null) || tasks.isEmpty()) return;
+		
+		try {
+			LinkedHashSet<Integer> categoryIds = new LinkedHashSet<>();
+			for (Task task : tasks) {
+				categoryIds.add(task.getCategoryId());
+			}
+			for (Integer categoryId : categoryIds) {
+				checkRightsOnCategoryElements(categoryId, "CREATE"); // Rights check!
+			}
+			
+			con = getWriteConnection(false);
+			List<Long> ids = tasDao.getSequences(con, tasks.size());
+			ArrayList<OTask> otasks = new ArrayList<>(tasks.size());
+			int i = 0;
+			for (Task task : tasks) {
+				OTask otask = createOTask(task);
+				otask.setTaskId(ids.get(i++).intValue());
+				fillOTaskWithDefaults(otask);
+				otasks.add(otask);
+			}
+			tasDao.batchInsert(con, otasks, createRevisionTimestamp());
+			DbUtils.commitQuietly(con);
+			i = 0;
+			for (Task task : tasks) {
+				task.setTaskId(otasks.get(i++).getTaskId());
+			}
+			ArrayList<Integer> taskIds = new ArrayList<>(otasks.size());
+			for (OTask otask : otasks) {
+				if (otask.getReminderDate() != null) taskIds.add(otask.getTaskId());
+			}
+			touchRemindersAfterCommit(taskIds);
+			invalidateTagsAfterCommit(categoryIds);
+			HashMap<Integer, Integer> categoryIdsByTask = new HashMap<>(otasks.size());
+			for (OTask otask : otasks) {
+				categoryIdsByTask.put(otask.getTaskId(), otask.getCategoryId());
+			}
+			for (Map.Entry<Integer, Set<Integer>> entry : groupByCategory(categoryIdsByTask).entrySet()) {
+				publishAfterCommit(new TaskCreated(getTargetProfileId(), entry.getKey(), entry.getValue()));
+			}
+			for (Integer categoryId : categoryIds) {
+				writeLog("TASK_INSERT", "*@" + categoryId);
+			}
+			
+			HashSet<String> subjects = new HashSet<>();
+			for (Task task : tasks) {
+				if (StringUtils.isBlank(task.getSubject())) continue;
+				if (subjects.add(task.getSubject().toUpperCase())) {
+					storeAsSuggestion(coreMgr, SUGGESTION_TASK_SUBJECT, task.getSubject());
+				}
+			}
+		
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	@Override
+	public void updateTask(Task task) throws WTException {
+		updateTask(task, false, null);
+	}
+	
+	/**
+	 * Updates a task replacing its recurrence: a null rule turns it back 
+	 * into a single task.
+	 * @param task The task to update.
+	 * @param recurrenceRule The recurrence rule (RRULE), or null.
+	 * @throws WTException 
+	 */
+	public void updateTask(Task task, String recurrenceRule) throws WTException {
+		updateTask(task, true, recurrenceRule);
+	}
+	
+	private void updateTask(Task task, boolean setRecurrence, String recurrenceRule) throws WTException {
+		Connection con = null;
+		
+		//TODO: gestire i suggerimenti (soggetto)
+
+		try {
+			checkRightsOnCategoryElements(task.getCategoryId(), "UPDATE"); // Rights check!
+
+			con = getWriteConnection(false);
+			OTask ocurrent = TaskDAO.getInstance().selectById(con, task.getTaskId());
+			if (ocurrent == null) throw new WTException("Unable to retrieve task [{0}]", task.getTaskId());
+			Map<Integer, Integer> movedIds = Collections.emptyMap();
+			if (!ocurrent.getCategoryId().equals(task.getCategoryId())) {
+				checkRightsOnCategoryElements(ocurrent.getCategoryId(), "UPDATE"); // Rights check!
+				// Category changed from the form: the subtree follows the task
+				movedIds = doMoveSubtrees(con, Arrays.asList(task.getTaskId()), task.getCategoryId());
+			}
+			OTask otask = doUpdateTask(false, con, task);
+			if (setRecurrence) doUpdateTaskRecurrence(con, otask, recurrenceRule);
+			if (Task.Status.COMPLETED.equals(task.getStatus())) doAdvanceRecurrences(con, Arrays.asList(task.getTaskId()));
+			DbUtils.commitQuietly(con);
+			if (!movedIds.isEmpty()) {
+				touchRemindersAfterCommit(movedIds.keySet());
+				invalidateTagsAfterCommit(Arrays.asList(ocurrent.getCategoryId(), task.getCategoryId()));
+			} else {
+				touchRemindersAfterCommit(Arrays.asList(task.getTaskId()));
+			}
+			if (!movedIds.isEmpty()) {
+				for (Map.Entry<Integer, Set<Integer>> entry : groupByCategory(movedIds).entrySet()) {
+					publishAfterCommit(new TaskMoved(getTargetProfileId(), entry.getKey(), task.getCategoryId(), entry.getValue()));
+				}
+			} else {
+				publishAfterCommit(new TaskUpdated(getTargetProfileId(), task.getCategoryId(), Arrays.asList(task.getTaskId())));
+			}
+			writeLog("TASK_UPDATE", String.valueOf(task.getTaskId()));
+
+		} catch (SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch (Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Applies the same set of field changes to many tasks, using a single 
+	 * statement and a common revision timestamp.
+	 * @param taskIds The IDs of the tasks to update.
+	 * @param changes The changes to apply.
+	 * @return The number of updated tasks.
+	 * @throws WTException 
+	 */
+	public int updateTasks(Collection<Integer> taskIds, TaskChanges changes) throws WTException {
+		return updateTasks(taskIds, changes, false);
+	}
+	
+	/**
+	 * Applies the same set of field changes to many tasks, optionally 
+	 * extending them to their whole subtrees (eg. to complete a task 
+	 * together with its subtasks).
+	 * @param taskIds The IDs of the tasks to update.
+	 * @param changes The changes to apply.
+	 * @param includeSubtrees True to update descendants too.
+	 * @return The number of updated tasks.
+	 * @throws WTException 
+	 */
+	public int updateTasks(Collection<Integer> taskIds, TaskChanges changes, boolean includeSubtrees) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			Set<Integer> ids = new LinkedHashSet<>();
+			for (Integer taskId : taskIds) {
+				if (taskId != null) ids.add(taskId);
+			}
+			if (ids.isEmpty() || changes.isEmpty()) return 0;
+			
+			con = getWriteConnection(true);
+			if (includeSubtrees) ids = doExpandSubtrees(con, ids);
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, ids);
+			for (Integer taskId : ids) {
+				if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			}
+			HashSet<Integer> categoryIds = new HashSet<>(categoryIdsByTask.values());
+			for (Integer categoryId : categoryIds) {
+				checkRightsOnCategoryElements(categoryId, "UPDATE"); // Rights check!
+			}
+			
+			con.setAutoCommit(false);
+			int ret = tasDao.updateByIds(con, ids, changes, createRevisionTimestamp());
+			List<Integer> advancedIds = new ArrayList<>();
+			if (Task.Status.COMPLETED.equals(changes.getStatus())) advancedIds = doAdvanceRecurrences(con, ids);
+			DbUtils.commitQuietly(con);
+			touchRemindersAfterCommit(advancedIds);
+			for (Map.Entry<Integer, Set<Integer>> entry : groupByCategory(categoryIdsByTask).entrySet()) {
+				publishAfterCommit(new TaskUpdated(getTargetProfileId(), entry.getKey(), entry.getValue()));
+			}
+			for (Integer categoryId : categoryIds) {
+				writeLog("TASK_UPDATE", "*@" + categoryId);
+			}
+			
+			return ret;
+		
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	@Override
+	public void deleteTask(int taskId) throws WTException {
+		TaskDAO tasdao = TaskDAO.getInstance();
+		Connection con = null;
+
+		try {
+			con = getWriteConnection(true);
+
+			OTask cont = tasdao.selectById(con, taskId);
+			if (cont == null) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			checkRightsOnCategoryElements(cont.getCategoryId(), "DELETE"); // Rights check!
+
+			con.setAutoCommit(false);
+			Set<Integer> ids = doExpandSubtrees(con, Arrays.asList(taskId));
+			tasdao.logicDeleteByIds(con, ids, createRevisionTimestamp());
+			DbUtils.commitQuietly(con);
+			touchRemindersAfterCommit(ids);
+			publishAfterCommit(new TaskDeleted(getTargetProfileId(), cont.getCategoryId(), ids));
+			writeLog("TASK_DELETE", String.valueOf(taskId));
+
+		} catch (SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch (Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	@Override
+	public void deleteTask(ArrayList<Integer> taskIds) throws WTException {
+		TaskDAO tasdao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+			for (Integer taskId : taskIds) {
+				if (taskId != null) ids.add(taskId);
+			}
+			if (ids.isEmpty()) return;
+			
+			con = getWriteConnection(true);
+			Map<Integer, Integer> categoryIdsByTask = tasdao.selectCategoryIdsByIds(con, ids);
+			for (Integer taskId : ids) {
+				if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			}
+			for (Integer categoryId : new HashSet<>(categoryIdsByTask.values())) {
+				checkRightsOnCategoryElements(categoryId, "DELETE"); // Rights check!
+			}
+			
+			con.setAutoCommit(false);
+			Set<Integer> deletedIds = doExpandSubtrees(con, ids);
+			if (deletedIds.size() > ids.size()) categoryIdsByTask = tasdao.selectCategoryIdsByIds(con, deletedIds);
+			tasdao.logicDeleteByIds(con, deletedIds, createRevisionTimestamp());
+			DbUtils.commitQuietly(con);
+			touchRemindersAfterCommit(deletedIds);
+			for (Map.Entry<Integer, Set<Integer>> entry : groupByCategory(categoryIdsByTask).entrySet()) {
+				publishAfterCommit(new TaskDeleted(getTargetProfileId(), entry.getKey(), entry.getValue()));
+			}
+			writeLog("TASK_DELETE", "*");
+			
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	@Override
+	public int deleteAllTasks(int categoryId) throws WTException {
+		Connection con = null;
+
+		try {
+			checkRightsOnCategoryElements(categoryId, "DELETE");
+
+			con = getWriteConnection(false);
+			int ret = doDeleteTasksByCategory(con, categoryId);
+			DbUtils.commitQuietly(con);
+			touchCategoryRemindersAfterCommit(categoryId);
+			publishAfterCommit(new TaskDeleted(getTargetProfileId(), categoryId, null));
+			writeLog("TASK_DELETE", "*");
+			
+			return ret;
+
+		} catch (SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch (Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	@Override
+	public void moveTask(boolean copy, int taskId, int targetCategoryId) throws WTException {
+		TaskDAO tasdao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			con = getWriteConnection(true);
+			OTask otask = tasdao.selectById(con, taskId);
+			if (otask == null) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			checkRightsOnCategoryFolder(otask.getCategoryId(), "READ");
+			
+			if (copy || (targetCategoryId != otask.getCategoryId())) {
+				checkRightsOnCategoryElements(targetCategoryId, "CREATE");
+				if (!copy) checkRightsOnCategoryElements(otask.getCategoryId(), "DELETE");
+				
+				Task task = createTask(otask);
+
+				con.setAutoCommit(false);
+				Set<Integer> ids = doMoveTask(con, copy, task, targetCategoryId);
+				DbUtils.commitQuietly(con);
+				if (copy) {
+					publishAfterCommit(new TaskCreated(getTargetProfileId(), targetCategoryId, ids));
+				} else {
+					publishAfterCommit(new TaskMoved(getTargetProfileId(), otask.getCategoryId(), targetCategoryId, ids));
+				}
+				if (copy) {
+					touchCategoryRemindersAfterCommit(targetCategoryId);
+				} else {
+					touchRemindersAfterCommit(Arrays.asList(task.getTaskId()));
+				}
+				invalidateTagsAfterCommit(Arrays.asList(otask.getCategoryId(), targetCategoryId));
+				writeLog("TASK_UPDATE", String.valueOf(task.getTaskId()));
+			}
+			
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Moves (or copies) many tasks into the specified category at once.
+	 * Moves are carried out by a single update, while copies are made 
+	 * DB side using one INSERT ... SELECT statement.
+	 * @param copy True to copy tasks, false to move them.
+	 * @param taskIds The IDs of the tasks to move/copy.
+	 * @param targetCategoryId The target category ID.
+	 * @throws WTException 
+	 */
+	public void moveTasks(boolean copy, Collection<Integer> taskIds, int targetCategoryId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		try {
+			LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+			for (Integer taskId : taskIds) {
+				if (taskId != null) ids.add(taskId);
+			}
+			if (ids.isEmpty()) return;
+			
+			con = getWriteConnection(true);
+			Map<Integer, Integer> categoryIdsByTask = tasDao.selectCategoryIdsByIds(con, ids);
+			for (Integer taskId : ids) {
+				if (!categoryIdsByTask.containsKey(taskId)) throw new WTException("Unable to retrieve task [{0}]", taskId);
+			}
+			for (Integer categoryId : new HashSet<>(categoryIdsByTask.values())) {
+				checkRightsOnCategoryFolder(categoryId, "READ");
+				if (!copy && (categoryId != targetCategoryId)) checkRightsOnCategoryElements(categoryId, "DELETE");
+			}
+			checkRightsOnCategoryElements(targetCategoryId, "CREATE");
+			
+			con.setAutoCommit(false);
+			if (copy) {
+				List<Long> newIds = tasDao.getSequences(con, ids.size());
+				LinkedHashMap<Integer, Integer> newIdsBySourceId = new LinkedHashMap<>();
+				int i = 0;
+				for (Integer taskId : ids) {
+					newIdsBySourceId.put(taskId, newIds.get(i++).intValue());
+				}
+				String internetName = WT.getDomainInternetName(getTargetProfileId().getDomainId());
+				HashMap<Integer, String> publicUidsByNewId = new HashMap<>();
+				for (Integer newId : newIdsBySourceId.values()) {
+					publicUidsByNewId.put(newId, buildTaskUid(newId, internetName));
+				}
+				tasDao.insertCopiesByIds(con, newIdsBySourceId, publicUidsByNewId, targetCategoryId, createRevisionTimestamp());
+				TagDAO.getInstance().insertCopiesByIds(con, newIdsBySourceId);
+				DbUtils.commitQuietly(con);
+				touchRemindersAfterCommit(newIdsBySourceId.values());
+				invalidateTagsAfterCommit(Arrays.asList(targetCategoryId));
+				publishAfterCommit(new TaskCreated(getTargetProfileId(), targetCategoryId, newIdsBySourceId.values()));
+				writeLog("TASK_INSERT", "*@" + targetCategoryId);
+			
+			} else {
+				Map<Integer, Integer> sourceCategoryIds = doMoveSubtrees(con, ids, targetCategoryId);
+				DbUtils.commitQuietly(con);
+				touchRemindersAfterCommit(sourceCategoryIds.keySet());
+				invalidateTagsAfterCommit(categoryIdsByTask.values());
+				invalidateTagsAfterCommit(Arrays.asList(targetCategoryId));
+				for (Map.Entry<Integer, Set<Integer>> entry : groupByCategory(sourceCategoryIds).entrySet()) {
+					if (entry.getKey() == targetCategoryId) continue;
+					publishAfterCommit(new TaskMoved(getTargetProfileId(), entry.getKey(), targetCategoryId, entry.getValue()));
+				}
+				writeLog("TASK_UPDATE", "*@" + targetCategoryId);
+			}
+		
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
+			throw ex;
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Exports active tasks of passed categories as iCalendar VTODOs.
+	 * Tasks are read through a DB cursor and written one by one into the 
+	 * stream, so the whole result set is never held in memory.
+	 * @param categoryIds The IDs of the categories to export.
+	 * @param os The destination stream.
+	 * @return The number of exported tasks.
+	 * @throws WTException 
+	 */
+	public int exportTasks(Collection<Integer> categoryIds, OutputStream os) throws WTException {
+		CategoryDAO catDao = CategoryDAO.getInstance();
+		TaskDAO tasDao = TaskDAO.getInstance();
+		Connection con = null;
+		Cursor<TasksRecord> cursor = null;
+		
+		try {
+			for (Integer categoryId : categoryIds) {
+				checkRightsOnCategoryFolder(categoryId, "READ"); // Rights check!
+			}
+			
+			// Cursor-based fetching requires a transaction (PostgreSQL)
+			con = getReadConnection();
+			con.setAutoCommit(false);
+			VTodoWriter writer = new VTodoWriter(os);
+			writer.writeHeader(ICALENDAR_PRODID);
+			int count = 0;
+			for (Integer categoryId : categoryIds) {
+				OCategory ocat = catDao.selectById(con, categoryId);
+				if (ocat == null) continue;
+				
+				cursor = tasDao.cursorByCategory(con, categoryId);
+				for (TasksRecord record : cursor) {
+					writer.writeTask(createTask(record.into(OTask.class)), ocat.getName());
+					count++;
+				}
+				cursor.close();
+				cursor = null;
+				writer.flush();
+			}
+			writer.writeFooter();
+			DbUtils.commitQuietly(con);
+			
+			return count;
+		
+		} catch(SQLException | DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "DB error");
+		} catch(IOException ex) {
+			DbUtils.rollbackQuietly(con);
+			throw new WTException(ex, "Unable to write tasks");
+		} finally {
+			if (cursor != null) cursor.close();
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Imports iCalendar VTODOs into the specified category.
+	 * The stream is parsed incrementally and tasks are written in batches, 
+	 * each one committed on its own: items are matched by their public UID 
+	 * so that tasks already in the category are updated instead of being 
+	 * duplicated. Matching is limited to active tasks of the target category: 
+	 * importing the same items into another category creates new tasks 
+	 * sharing their public UIDs. A failing batch does not stop the import, 
+	 * its items are reported as failed.
+	 * @param categoryId The target category ID.
+	 * @param is The source stream.
+	 * @param batchSize Max number of tasks written by each batch.
+	 * @return The import outcome.
+	 * @throws WTException 
+	 */
+	public TaskImportResult importTasks(int categoryId, InputStream is, int batchSize) throws WTException {
+		Connection con = null;
+		
+		try {
+			checkRightsOnCategoryElements(categoryId, "CREATE"); // Rights check!
+			checkRightsOnCategoryElements(categoryId, "UPDATE"); // Rights check!
+			
+			DateTimeZone profileTz = WT.getUserData(getTargetProfileId()).getTimeZone();
+			VTodoReader reader = new VTodoReader(is, profileTz);
+			TaskImportResult result = new TaskImportResult();
+			
+			// Batches are committed on their own: never join the current unit of work
+			lastWriteMillis = System.currentTimeMillis();
+			con = WT.getConnection(SERVICE_ID, false);
+			LinkedHashMap<String, Task> batch = new LinkedHashMap<>();
+			Task task;
+			do {
+				task = reader.next();
+				if (task != null) batch.put(task.getPublicUid(), task);
+				if ((batch.size() >= batchSize) || ((task == null) && !batch.isEmpty())) {
+					doImportTasksBatch(con, categoryId, batch.values(), result);
+					batch.clear();
+					logger.debug("Import into category {}: {} tasks processed ({} inserted, {} updated)", categoryId, result.getProcessed(), result.getInserted(), result.getUpdated());
+				}
+			} while (task != null);
+			for (String error : reader.getErrors()) {
+				result.addFailed(1, error);
+			}
+			
+			writeLog("TASK_INSERT", "*@" + categoryId);
+			logger.info("Import into category {} completed: {} inserted, {} updated, {} failed", categoryId, result.getInserted(), result.getUpdated(), result.getFailed());
+			return result;
+		
+		} catch(SQLException ex) {
+			throw new WTException(ex, "DB error");
+		} catch(IOException ex) {
+			throw new WTException(ex, "Unable to read tasks");
+		} finally {
+			DbUtils.rollbackQuietly(con);
+			DbUtils.closeQuietly(con);
+			// Batches may have been committed, even on failure
+			invalidateTagsAfterCommit(Arrays.asList(categoryId));
+		}
+	}
+	
+	public void eraseData(boolean deep) throws WTException {
+		CategoryDAO catDao = CategoryDAO.getInstance();
+		CategoryPropsDAO psetDao = CategoryPropsDAO.getInstance();
+		TaskDAO tasDao = TaskDAO.getInstance();
+		List<String> orphanAttachmentIds = null;
+		ArrayList<Integer> categoryIds = new ArrayList<>();
+		Connection con = null;
+		
+		//TODO: controllo permessi
+		
+		try {
+			con = getWriteConnection(false);
+			UserProfileId pid = getTargetProfileId();
 			
 			// Erase tasks
 			if (deep) {
 				for (OCategory ocat : catDao.selectByProfile(con, pid.getDomainId(), pid.getUserId())) {
 					tasDao.deleteByCategoryId(con, ocat.getCategoryId());
+					categoryIds.add(ocat.getCategoryId());
 				}
+				RecurrenceDAO.getInstance().deleteOrphans(con);
+				HierarchyDAO.getInstance().deleteOrphans(con);
+				TagDAO.getInstance().deleteOrphans(con);
+				orphanAttachmentIds = doDeleteOrphanAttachments(con);
 			} else {
 				DateTime revTs = createRevisionTimestamp();
 				for (OCategory ocat : catDao.selectByProfile(con, pid.getDomainId(), pid.getUserId())) {
 					tasDao.logicDeleteByCategoryId(con, ocat.getCategoryId(), revTs);
+					categoryIds.add(ocat.getCategoryId());
 				}
 			}
 			
@@ -761,6 +1976,11 @@ public class TasksManager extends BaseManager implements ITasksManager {
 			catDao.deleteByProfile(con, pid.getDomainId(), pid.getUserId());
 			
 			DbUtils.commitQuietly(con);
+			invalidateTagsAfterCommit(null);
+			if (orphanAttachmentIds != null) deleteAttachmentPayloadsAfterCommit(orphanAttachmentIds);
+			for (Integer categoryId : categoryIds) {
+				publishAfterCommit(new CategoryChanged(getTargetProfileId(), categoryId, CategoryChanged.Type.DELETED));
+			}
 			
 		} catch(SQLException | DAOException ex) {
 			DbUtils.rollbackQuietly(con);
@@ -773,44 +1993,112 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		}
 	}
 
+	/**
+	 * Physically removes tasks marked as deleted before the specified instant.
+	 * Rows are purged in chunks (each one committed on its own), pausing 
+	 * between chunks in order to limit the load on the database.
+	 * @param before Only tasks deleted before this instant are purged.
+	 * @param chunkSize Max number of rows purged by each statement.
+	 * @param throttle Pause between chunks, in milliseconds.
+	 * @return The total number of purged tasks.
+	 * @throws WTException 
+	 */
+	public int compactDeletedTasks(DateTime before, int chunkSize, long throttle) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		Connection con = null;
+		
+		if (!RunContext.isWebTopAdmin()) throw new AuthException("Action not allowed [compactDeletedTasks]");
+		
+		try {
+			con = WT.getConnection(SERVICE_ID);
+			
+			int total = 0, chunk = 0, ret;
+			do {
+				ret = tasDao.deleteDeletedBefore(con, before, chunkSize);
+				total += ret;
+				chunk++;
+				logger.debug("Compaction chunk #{}: {} tasks purged ({} so far)", chunk, ret, total);
+				if ((ret < chunkSize) || Thread.currentThread().isInterrupted()) break;
+				if (throttle > 0) Thread.sleep(throttle);
+			} while (true);
+			MovedTaskDAO.getInstance().deleteBefore(con, before);
+			if (total > 0) {
+				RecurrenceDAO.getInstance().deleteOrphans(con);
+				HierarchyDAO.getInstance().deleteOrphans(con);
+				TagDAO.getInstance().deleteOrphans(con);
+				deleteAttachmentPayloadsAfterCommit(doDeleteOrphanAttachments(con));
+			}
+			
+			logger.info("Compaction completed: {} deleted tasks older than {} purged in {} chunks", total, before, chunk);
+			return total;
+		
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new WTException(ex, "Compaction interrupted");
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
 	public List<BaseReminder> getRemindersToBeNotified(DateTime now) {
 		ArrayList<BaseReminder> alerts = new ArrayList<>();
-		HashMap<UserProfileId, Boolean> byEmailCache = new HashMap<>();
+		ReminderContext ctx = new ReminderContext(SERVICE_ID);
+		ReminderScheduler scheduler = ReminderScheduler.getInstance();
 		TaskDAO dao = TaskDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
-			con.setAutoCommit(false);
+			con = WT.getConnection(SERVICE_ID, false);
 			
-			DateTime now12 = now.plusHours(14);
-			List<VTask> tasks = dao.viewExpridedForUpdateByUntil(con, now12);
-			DateTime profileNow = null, profileReminderDate = null;
-			for(VTask task : tasks) {
-				UserProfile.Data ud = WT.getUserData(task.getCategoryProfileId());
-				profileNow = now.withZone(ud.getTimeZone());
-				profileReminderDate = task.getReminderDate().withZone(DateTimeZone.UTC).withZoneRetainFields(ud.getTimeZone());
-				if(profileReminderDate.isAfter(profileNow)) continue;
-				
-				if(!byEmailCache.containsKey(task.getCategoryProfileId())) {
-					TasksUserSettings us = new TasksUserSettings(SERVICE_ID, task.getCategoryProfileId());
-					boolean bool = us.getTaskReminderDelivery().equals(TasksSettings.TASK_REMINDER_DELIVERY_EMAIL);
-					byEmailCache.put(task.getCategoryProfileId(), bool);
-				}
-
-				int ret = dao.updateRemindedOn(con, task.getTaskId(), now);
-				if(ret != 1) continue;
+			// Upcoming reminders are kept in memory: the database is fully 
+			// scanned only when reconciling, otherwise only locally changed 
+			// tasks are reloaded.
+			if (scheduler.needsReconcile(now)) {
+				int interval = new TasksServiceSettings(SERVICE_ID, "*").getReminderReconcileInterval();
+				DateTime until = now.plusHours(14).plusMinutes(interval);
+				List<VTask> tasks = dao.viewRemindersByUntil(con, until);
+				ctx.prefetch(tasks);
+				scheduler.reconcile(ctx, now, tasks, until, now.plusMinutes(interval));
+				DbUtils.commitQuietly(con);
+			} else if (scheduler.isDirty()) {
+				HashSet<Integer> taskIds = scheduler.drainDirtyTaskIds();
+				HashSet<Integer> categoryIds = scheduler.drainDirtyCategoryIds();
+				List<VTask> tasks = dao.viewRemindersByIdsCategoriesUntil(con, taskIds, categoryIds, scheduler.getLoadedUntil());
+				ctx.prefetch(tasks);
+				scheduler.refresh(ctx, taskIds, categoryIds, tasks);
+				DbUtils.commitQuietly(con);
+			}
+			
+			// Due reminders are claimed in small batches, each one in its own 
+			// transaction: rows locked by other nodes are skipped, so nodes 
+			// can work in parallel without waiting or notifying twice.
+			List<Integer> dueIds = scheduler.pollDue(now);
+			for (int i = 0; i < dueIds.size(); i += REMINDERS_CLAIM_BATCH_SIZE) {
+				List<Integer> batchIds = dueIds.subList(i, Math.min(i + REMINDERS_CLAIM_BATCH_SIZE, dueIds.size()));
 				
-				if(byEmailCache.get(task.getCategoryProfileId())) {
-					//UserProfile.Data ud = WT.getUserData(task.getCategoryProfileId());
-					alerts.add(createTaskReminderAlertEmail(ud.getLocale(), task));
-				} else {
-					alerts.add(createTaskReminderAlertWeb(task, profileReminderDate, ud.getTimeZone()));
+				ArrayList<Integer> claimedIds = new ArrayList<>();
+				ArrayList<BaseReminder> claimedAlerts = new ArrayList<>();
+				List<VTask> tasks = dao.viewExpiredForUpdateSkipLockedByIds(con, batchIds);
+				ctx.prefetch(tasks);
+				for (VTask task : tasks) {
+					DateTime reminderInstant = ctx.toReminderInstant(task);
+					if (reminderInstant.isAfter(now)) { // Changed elsewhere in the meantime
+						scheduler.reschedule(task, reminderInstant);
+						continue;
+					}
+					
+					claimedIds.add(task.getTaskId());
+					claimedAlerts.add(createTaskReminderAlert(ctx.getProfile(task), task, reminderInstant));
 				}
+				if (!claimedIds.isEmpty()) dao.updateRemindedOnByIds(con, claimedIds, now);
+				con.commit(); // Alerts are returned only if the claim succeeded
+				alerts.addAll(claimedAlerts);
 			}
-			DbUtils.commitQuietly(con);
 			
 		} catch(Exception ex) {
+			DbUtils.rollbackQuietly(con);
 			logger.error("Error collecting reminder alerts", ex);
 		} finally {
 			DbUtils.closeQuietly(con);
@@ -848,6 +2136,172 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		return timeBasedPart + "." + taskPart + "@" + internetName;
 	}
 	
+	/**
+	 * Returns tag bitmaps of a category, loading them into the index if 
+	 * necessary. Rights are expected to be already checked.
+	 */
+	private TagIndex.CategoryTags getCategoryTags(int categoryId) throws WTException {
+		TagIndex index = TagIndex.getInstance();
+		long now = System.currentTimeMillis();
+		TagIndex.CategoryTags entry = index.get(categoryId, now);
+		if (entry != null) return entry;
+		
+		Connection con = null;
+		try {
+			long version = index.version(categoryId);
+			con = getReadConnection();
+			List<Integer> taskIds = TaskDAO.getInstance().selectActiveIdsByCategory(con, categoryId);
+			Map<String, List<Integer>> taskIdsByTag = TagDAO.getInstance().selectTaskIdsByCategoryGroupedByTag(con, categoryId);
+			entry = new TagIndex.CategoryTags(taskIds, taskIdsByTag, now);
+			index.put(categoryId, version, entry);
+			return entry;
+		
+		} catch(SQLException | DAOException ex) {
+			throw new WTException(ex, "DB error");
+		} finally {
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Runs an action once changes are visible to others: within a unit of 
+	 * work, it is deferred until the unit is actually committed (and dropped 
+	 * on rollback), otherwise it runs immediately.
+	 * Must be called after committing own connection.
+	 */
+	private void runAfterCommit(Runnable action) {
+		if (!UnitOfWork.runAfterCommit(SERVICE_ID, action)) action.run();
+	}
+	
+	/**
+	 * Publishes an event on the {@link TaskEventBus} after commit.
+	 */
+	private void publishAfterCommit(final TaskEvent event) {
+		final TaskEventBus bus = TaskEventBus.getInstance();
+		if (!bus.hasSubscribers()) return;
+		runAfterCommit(new Runnable() {
+			@Override
+			public void run() {
+				bus.publish(event);
+			}
+		});
+	}
+	
+	/**
+	 * Marks reminders of passed tasks for reloading, after commit: 
+	 * reloading them earlier would cache the old state.
+	 */
+	private void touchRemindersAfterCommit(Collection<Integer> taskIds) {
+		final ArrayList<Integer> ids = new ArrayList<>(taskIds);
+		runAfterCommit(new Runnable() {
+			@Override
+			public void run() {
+				ReminderScheduler.getInstance().touch(ids);
+			}
+		});
+	}
+	
+	private void touchCategoryRemindersAfterCommit(final int categoryId) {
+		runAfterCommit(new Runnable() {
+			@Override
+			public void run() {
+				ReminderScheduler.getInstance().touchCategory(categoryId);
+			}
+		});
+	}
+	
+	/**
+	 * Invalidates the {@link TagIndex} of passed categories (or all, if null) 
+	 * after commit: rebuilding it earlier would cache the old state.
+	 */
+	private void invalidateTagsAfterCommit(Collection<Integer> categoryIds) {
+		final ArrayList<Integer> ids = (categoryIds != null) ? new ArrayList<>(categoryIds) : null;
+		runAfterCommit(new Runnable() {
+			@Override
+			public void run() {
+				if (ids == null) {
+					TagIndex.getInstance().clear();
+				} else {
+					TagIndex.getInstance().invalidate(ids);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Removes payloads after commit: rows are still there until then.
+	 */
+	private void deleteAttachmentPayloadsAfterCommit(Collection<String> attachmentIds) {
+		if (attachmentIds.isEmpty()) return;
+		final ArrayList<String> ids = new ArrayList<>(attachmentIds);
+		runAfterCommit(new Runnable() {
+			@Override
+			public void run() {
+				deleteAttachmentPayloads(getAttachmentStore(), ids);
+			}
+		});
+	}
+	
+	private static Map<Integer, Set<Integer>> groupByCategory(Map<Integer, Integer> categoryIdsByTask) {
+		LinkedHashMap<Integer, Set<Integer>> map = new LinkedHashMap<>();
+		for (Map.Entry<Integer, Integer> entry : categoryIdsByTask.entrySet()) {
+			Set<Integer> ids = map.get(entry.getValue());
+			if (ids == null) {
+				ids = new LinkedHashSet<>();
+				map.put(entry.getValue(), ids);
+			}
+			ids.add(entry.getKey());
+		}
+		return map;
+	}
+	
+	private static List<Integer> collectTaskIds(Collection<OTask> otasks) {
+		ArrayList<Integer> ids = new ArrayList<>(otasks.size());
+		for (OTask otask : otasks) {
+			ids.add(otask.getTaskId());
+		}
+		return ids;
+	}
+	
+	private AttachmentStore getAttachmentStore() {
+		return new AttachmentStore(new TasksServiceSettings(SERVICE_ID, "*").getAttachmentsPath());
+	}
+	
+	/**
+	 * Removes attachment rows left without their task, returning their IDs: 
+	 * payloads must be removed, by the caller, only after commit.
+	 */
+	private List<String> doDeleteOrphanAttachments(Connection con) throws WTException {
+		AttachmentDAO attDao = AttachmentDAO.getInstance();
+		List<String> ids = attDao.selectOrphanIds(con);
+		if (!ids.isEmpty()) attDao.deleteByIds(con, ids);
+		return ids;
+	}
+	
+	private void deleteAttachmentPayloads(AttachmentStore store, Collection<String> attachmentIds) {
+		for (String attachmentId : attachmentIds) {
+			try {
+				store.delete(attachmentId);
+			} catch(IOException ex) {
+				logger.warn("Unable to delete attachment payload [{}]", attachmentId, ex);
+			}
+		}
+	}
+	
+	private TaskAttachment createTaskAttachment(OAttachment oatt) {
+		return new TaskAttachment(oatt.getAttachmentId(), oatt.getTaskId(), oatt.getFilename(), oatt.getSize(), oatt.getMediaType(), oatt.getRevisionTimestamp());
+	}
+	
+	private static Set<String> normalizeTags(Collection<String> tags) {
+		LinkedHashSet<String> set = new LinkedHashSet<>();
+		if (tags == null) return set;
+		for (String tag : tags) {
+			String norm = StringUtils.left(StringUtils.lowerCase(StringUtils.trim(tag)), TAG_MAX_LENGTH);
+			if (!StringUtils.isBlank(norm)) set.add(norm);
+		}
+		return set;
+	}
+	
 	private OTask doUpdateTask(boolean insert, Connection con, Task task) throws WTException {
 		TaskDAO tasDao = TaskDAO.getInstance();
 		
@@ -864,32 +2318,184 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		return otask;
 	}
 	
-	private int doDeleteTask(Connection con, int taskId) throws WTException {
-		TaskDAO tasdao = TaskDAO.getInstance();
-		return tasdao.logicDeleteById(con, taskId, createRevisionTimestamp());
-	}
-	
 	private int doDeleteTasksByCategory(Connection con, int categoryId) throws WTException {
 		TaskDAO tasdao = TaskDAO.getInstance();
 		return tasdao.logicDeleteByCategoryId(con, categoryId, createRevisionTimestamp());
 	}
 	
-	private void doMoveTask(Connection con, boolean copy, Task task, int targetCategoryId) throws WTException {
+	/**
+	 * @return The IDs of the copy or of the moved tasks.
+	 */
+	private Set<Integer> doMoveTask(Connection con, boolean copy, Task task, int targetCategoryId) throws WTException {
 		if(copy) {
+			int sourceTaskId = task.getTaskId();
 			task.setCategoryId(targetCategoryId);
-			doUpdateTask(true, con, task);
+			OTask otask = doUpdateTask(true, con, task);
+			TagDAO.getInstance().insertCopiesByIds(con, Collections.singletonMap(sourceTaskId, otask.getTaskId()));
+			return Collections.singleton(otask.getTaskId());
+		} else {
+			return doMoveSubtrees(con, Arrays.asList(task.getTaskId()), targetCategoryId).keySet();
+		}
+	}
+	
+	/**
+	 * Moves tasks to another category, together with their subtrees: the 
+	 * hierarchy never spans categories, so moved subtrees are detached 
+	 * from parents left behind.
+	 * @param con
+	 * @param taskIds
+	 * @param targetCategoryId
+	 * @return The source category IDs of all moved tasks, keyed by task ID.
+	 * @throws WTException 
+	 */
+	private Map<Integer, Integer> doMoveSubtrees(Connection con, Collection<Integer> taskIds, int targetCategoryId) throws WTException {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		HierarchyDAO hieDao = HierarchyDAO.getInstance();
+		
+		Set<Integer> ids = doExpandSubtrees(con, taskIds);
+		for (Integer taskId : taskIds) {
+			Integer parentId = hieDao.selectParentId(con, taskId);
+			if ((parentId != null) && !ids.contains(parentId)) hieDao.deleteSubtreeLinks(con, taskId);
+		}
+		Map<Integer, Integer> sourceCategoryIds = tasDao.selectCategoryIdsByIds(con, ids);
+		DateTime revTs = createRevisionTimestamp();
+		MovedTaskDAO.getInstance().insertByIds(con, ids, targetCategoryId, revTs);
+		tasDao.updateCategoryByIds(con, ids, targetCategoryId, revTs);
+		return sourceCategoryIds;
+	}
+	
+	private Set<Integer> doExpandSubtrees(Connection con, Collection<Integer> taskIds) throws WTException {
+		LinkedHashSet<Integer> ids = new LinkedHashSet<>(taskIds);
+		ids.addAll(HierarchyDAO.getInstance().selectDescendantIds(con, taskIds));
+		return ids;
+	}
+	
+	private List<TaskNode> createTaskNodes(Connection con, List<VTask> vtasks) throws WTException {
+		ArrayList<TaskNode> items = new ArrayList<>(vtasks.size());
+		if (vtasks.isEmpty()) return items;
+		
+		ArrayList<Integer> taskIds = new ArrayList<>(vtasks.size());
+		for (VTask vtask : vtasks) {
+			taskIds.add(vtask.getTaskId());
+		}
+		Map<Integer, TaskSubtreeStats> stats = TaskDAO.getInstance().selectSubtreeStatsByIds(con, taskIds);
+		for (VTask vtask : vtasks) {
+			TaskSubtreeStats stat = stats.get(vtask.getTaskId());
+			items.add(new TaskNode(fillTaskEx(new TaskEx(), vtask), vtask.getParentId(), (stat != null) ? stat : TaskSubtreeStats.EMPTY));
+		}
+		return items;
+	}
+	
+	private void doUpdateTaskRecurrence(Connection con, OTask otask, String recurrenceRule) throws WTException {
+		RecurrenceDAO recDao = RecurrenceDAO.getInstance();
+		
+		ORecurrence orec = recDao.selectById(con, otask.getTaskId());
+		if (StringUtils.isBlank(recurrenceRule)) {
+			if (orec != null) recDao.deleteById(con, otask.getTaskId());
+			return;
+		}
+		
+		String rule = parseRecurrenceRule(recurrenceRule).toString();
+		if ((orec != null) && rule.equals(orec.getRule())) return;
+		DateTime start = occurrenceDate(otask);
+		if (start == null) throw new WTException("Recurring tasks need a start or due date");
+		
+		// A new or changed rule restarts the series from the current dates
+		ORecurrence item = new ORecurrence();
+		item.setTaskId(otask.getTaskId());
+		item.setRule(rule);
+		item.setStartDate(start);
+		item.setOccurrence(0);
+		if (orec != null) {
+			recDao.update(con, item);
 		} else {
-			TaskDAO tasDao = TaskDAO.getInstance();
-			tasDao.updateCategory(con, task.getTaskId(), targetCategoryId, createRevisionTimestamp());
+			recDao.insert(con, item);
+		}
+	}
+	
+	/**
+	 * Moves completed recurring tasks onto their next occurrence, in place: 
+	 * dates are shifted and progress is reset. When a series is over the 
+	 * recurrence is dropped and the task stays completed. Tasks are loaded 
+	 * and locked, along with their recurrence, at once and then updated in 
+	 * bulk; locks make concurrent completions advance a series one at a time.
+	 * @param con
+	 * @param taskIds
+	 * @return The IDs of tasks moved onto the next occurrence.
+	 * @throws WTException 
+	 */
+	private List<Integer> doAdvanceRecurrences(Connection con, Collection<Integer> taskIds) throws WTException {
+		RecurrenceDAO recDao = RecurrenceDAO.getInstance();
+		TaskDAO tasDao = TaskDAO.getInstance();
+		
+		ArrayList<Integer> advancedIds = new ArrayList<>();
+		Map<Integer, OTask> otasks = tasDao.selectRecurringForUpdateByIds(con, taskIds);
+		if (otasks.isEmpty()) return advancedIds;
+		Map<Integer, ORecurrence> orecs = recDao.selectByIds(con, otasks.keySet());
+		
+		ArrayList<OTask> advanced = new ArrayList<>();
+		HashMap<Integer, Integer> occurrences = new HashMap<>();
+		ArrayList<Integer> endedIds = new ArrayList<>();
+		for (OTask otask : otasks.values()) {
+			ORecurrence orec = orecs.get(otask.getTaskId());
+			if (orec == null) continue;
+			
+			DateTime current = occurrenceDate(otask);
+			DateTime next = null;
+			if (current != null) {
+				try {
+					next = RecurrenceRule.parse(orec.getRule()).next(orec.getStartDate(), current, orec.getOccurrence());
+				} catch(IllegalArgumentException ex) {
+					logger.warn("Invalid recurrence rule on task [{}]: {}", otask.getTaskId(), ex.getMessage());
+				}
+			}
+			if (next == null) {
+				endedIds.add(otask.getTaskId());
+				continue;
+			}
+			
+			otask.setStartDate(shiftToOccurrence(otask.getStartDate(), current, next));
+			otask.setDueDate(shiftToOccurrence(otask.getDueDate(), current, next));
+			otask.setReminderDate(shiftToOccurrence(otask.getReminderDate(), current, next));
+			otask.setRemindedOn(null);
+			otask.setCompletedDate(null);
+			otask.setStatus(EnumUtils.toSerializedName(Task.Status.NOT_STARTED));
+			otask.setCompletionPercentage((short)0);
+			advanced.add(otask);
+			occurrences.put(otask.getTaskId(), orec.getOccurrence() + 1);
+			advancedIds.add(otask.getTaskId());
+		}
+		
+		if (!endedIds.isEmpty()) recDao.deleteByIds(con, endedIds);
+		if (!advanced.isEmpty()) {
+			tasDao.batchUpdateOccurrence(con, advanced, createRevisionTimestamp());
+			recDao.batchUpdateOccurrence(con, occurrences);
+		}
+		return advancedIds;
+	}
+	
+	private RecurrenceRule parseRecurrenceRule(String recurrenceRule) throws WTException {
+		try {
+			return RecurrenceRule.parse(recurrenceRule);
+		} catch(IllegalArgumentException ex) {
+			throw new WTException(ex, "Invalid recurrence rule [{0}]", recurrenceRule);
 		}
 	}
 	
+	private DateTime occurrenceDate(OTask otask) {
+		return (otask.getStartDate() != null) ? otask.getStartDate() : otask.getDueDate();
+	}
+	
+	private DateTime shiftToOccurrence(DateTime dt, DateTime current, DateTime occurrence) {
+		return (dt != null) ? occurrence.plus(dt.getMillis() - current.getMillis()) : null;
+	}
+	
 	private UserProfileId findCategoryOwner(int categoryId) throws WTException {
 		CategoryDAO dao = CategoryDAO.getInstance();
 		Connection con = null;
 		
 		try {
-			con = WT.getConnection(SERVICE_ID);
+			con = getPrimaryConnection(true);
 			Owner owner = dao.selectOwnerById(con, categoryId);
 			return (owner == null) ? null : new UserProfileId(owner.getDomainId(), owner.getUserId());
 			
@@ -1065,7 +2671,7 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		return fillTask(new Task(), with);
 	}
 	
-	private Task fillTask(Task fill, OTask with) {
+	private static Task fillTask(Task fill, OTask with) {
 		if ((fill != null) && (with != null)) {
 			fill.setTaskId(with.getTaskId());
 			fill.setCategoryId(with.getCategoryId());
@@ -1087,6 +2693,52 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		return fill;
 	}
 	
+	private void doImportTasksBatch(Connection con, int categoryId, Collection<Task> tasks, TaskImportResult result) {
+		TaskDAO tasDao = TaskDAO.getInstance();
+		
+		try {
+			ArrayList<String> publicUids = new ArrayList<>(tasks.size());
+			for (Task task : tasks) {
+				publicUids.add(task.getPublicUid());
+			}
+			Map<String, Integer> existingIds = tasDao.selectIdsByCategoryPublicUids(con, categoryId, publicUids);
+			ArrayList<OTask> inserts = new ArrayList<>();
+			ArrayList<OTask> updates = new ArrayList<>();
+			for (Task task : tasks) {
+				task.setCategoryId(categoryId);
+				OTask otask = createOTask(task);
+				Integer taskId = existingIds.get(task.getPublicUid());
+				if (taskId != null) {
+					otask.setTaskId(taskId);
+					updates.add(fillOTaskWithDefaults(otask));
+				} else {
+					inserts.add(otask);
+				}
+			}
+			
+			DateTime revTs = createRevisionTimestamp();
+			if (!inserts.isEmpty()) {
+				List<Long> ids = tasDao.getSequences(con, inserts.size());
+				int i = 0;
+				for (OTask otask : inserts) {
+					otask.setTaskId(ids.get(i++).intValue());
+					fillOTaskWithDefaults(otask);
+				}
+				tasDao.batchInsert(con, inserts, revTs);
+			}
+			if (!updates.isEmpty()) tasDao.batchUpdateContent(con, updates, revTs);
+			DbUtils.commitQuietly(con);
+			result.addBatch(inserts.size(), updates.size());
+			if (!inserts.isEmpty()) publishAfterCommit(new TaskCreated(getTargetProfileId(), categoryId, collectTaskIds(inserts)));
+			if (!updates.isEmpty()) publishAfterCommit(new TaskUpdated(getTargetProfileId(), categoryId, collectTaskIds(updates)));
+		
+		} catch(DAOException ex) {
+			DbUtils.rollbackQuietly(con);
+			logger.warn("Import batch #{} failed", result.getBatches() + 1, ex);
+			result.addFailed(tasks.size(), "Batch of " + tasks.size() + " tasks not imported: " + ex.getMessage());
+		}
+	}
+	
 	private OTask createOTask(Task with) {
 		return fillOTask(new OTask(), with);
 	}
@@ -1121,11 +2773,12 @@ public class TasksManager extends BaseManager implements ITasksManager {
 			if (fill.getImportance() == null) fill.setImportance((short)0);
 			if (fill.getIsPrivate() == null) fill.setIsPrivate(false);
 			if (fill.getStatus() == null) fill.setStatus(EnumUtils.toSerializedName(Task.Status.NOT_STARTED));
+			if (fill.getCompletionPercentage() == null) fill.setCompletionPercentage((short)0);
 		}
 		return fill;
 	}
 	
-	private TaskEx fillTaskEx(TaskEx fill, VTask with) {
+	private static TaskEx fillTaskEx(TaskEx fill, VTask with) {
 		if ((fill != null) && (with != null)) {
 			fillTask(fill, with);
 			fill.setCategoryDomainId(with.getCategoryDomainId());
@@ -1134,16 +2787,24 @@ public class TasksManager extends BaseManager implements ITasksManager {
 		return fill;
 	}
 	
-	private ReminderInApp createTaskReminderAlertWeb(VTask task, DateTime profileReminderDate, DateTimeZone profileTz) {
-		ReminderInApp alert = new ReminderInApp(SERVICE_ID, task.getCategoryProfileId(), "task", String.valueOf(task.getTaskId()));
+	private BaseReminder createTaskReminderAlert(ReminderContext.ProfileData profile, VTask task, DateTime reminderInstant) {
+		if (profile.isByEmail()) {
+			return createTaskReminderAlertEmail(profile.getProfileId(), profile.getLocale(), task);
+		} else {
+			return createTaskReminderAlertWeb(profile.getProfileId(), task, reminderInstant, profile.getTimeZone());
+		}
+	}
+	
+	private ReminderInApp createTaskReminderAlertWeb(UserProfileId profileId, VTask task, DateTime profileReminderDate, DateTimeZone profileTz) {
+		ReminderInApp alert = new ReminderInApp(SERVICE_ID, profileId, "task", String.valueOf(task.getTaskId()));
 		alert.setTitle(task.getSubject());
 		alert.setDate(profileReminderDate);
 		alert.setTimezone(profileTz.getID());
 		return alert;
 	}
 	
-	private ReminderEmail createTaskReminderAlertEmail(Locale locale, VTask task) {
-		ReminderEmail alert = new ReminderEmail(SERVICE_ID, task.getCategoryProfileId(), "task", String.valueOf(task.getTaskId()));
+	private ReminderEmail createTaskReminderAlertEmail(UserProfileId profileId, Locale locale, VTask task) {
+		ReminderEmail alert = new ReminderEmail(SERVICE_ID, profileId, "task", String.valueOf(task.getTaskId()));
 		//TODO: completare email
 		return alert;
 	}
@@ -53,4 +53,36 @@ public class TasksServiceSettings extends BaseServiceSettings {
 	public String getDefaultTaskReminderDelivery() {
 		return getString(DEFAULT_PREFIX + TASK_REMINDER_DELIVERY, TASK_REMINDER_DELIVERY_APP);
 	}
+	
+	public int getTombstoneRetentionDays() {
+		return getInteger(TOMBSTONE_RETENTION_DAYS, 90);
+	}
+	
+	public int getTombstoneCompactionChunkSize() {
+		return getInteger(TOMBSTONE_COMPACTION_CHUNK_SIZE, 1000);
+	}
+	
+	public long getTombstoneCompactionThrottle() {
+		return getLong(TOMBSTONE_COMPACTION_THROTTLE, 500L);
+	}
+	
+	public int getReminderReconcileInterval() {
+		return getInteger(REMINDER_RECONCILE_INTERVAL, 15);
+	}
+	
+	public String getReadOnlyDataSource() {
+		return getString(DATASOURCE_READONLY, null);
+	}
+	
+	public int getReadOnlyDataSourceRywWindow() {
+		return getInteger(DATASOURCE_READONLY_RYW_WINDOW, 10);
+	}
+	
+	public String getAttachmentsPath() {
+		return getString(ATTACHMENTS_PATH, System.getProperty("user.home") + "/webtop/tasks/attachments");
+	}
+	
+	public long getAttachmentsMaxSize() {
+		return getLong(ATTACHMENTS_MAXSIZE, 50L * 1024 * 1024);
+	}
 }
@@ -54,6 +54,65 @@ public class TasksSettings {
 	public static final String TASK_REMINDER_DELIVERY_APP = "app";
 	public static final String TASK_REMINDER_DELIVERY_EMAIL = "email";
 	
+	/**
+	 * [system]
+	 * [int]
+	 * Number of days deleted tasks are kept (for sync clients) before being purged.
+	 */
+	public static final String TOMBSTONE_RETENTION_DAYS = "tombstone.retention.days";
+	
+	/**
+	 * [system]
+	 * [int]
+	 * Max number of deleted tasks purged by a single compaction statement.
+	 */
+	public static final String TOMBSTONE_COMPACTION_CHUNK_SIZE = "tombstone.compaction.chunksize";
+	
+	/**
+	 * [system]
+	 * [long]
+	 * Pause (in millis) between two consecutive compaction chunks.
+	 */
+	public static final String TOMBSTONE_COMPACTION_THROTTLE = "tombstone.compaction.throttle";
+	
+	/**
+	 * [system]
+	 * [int]
+	 * Minutes between two full reloads of upcoming reminders from the 
+	 * database (changes made on other cluster nodes are seen by then).
+	 */
+	public static final String REMINDER_RECONCILE_INTERVAL = "reminder.reconcile.interval";
+	
+	/**
+	 * [system]
+	 * [string]
+	 * Name of an optional read-only datasource (eg. a replica) of this 
+	 * service, used by read paths. Leave empty to always use the primary.
+	 */
+	public static final String DATASOURCE_READONLY = "datasource.readonly";
+	
+	/**
+	 * [system]
+	 * [int]
+	 * Seconds after a write during which reads keep using the primary.
+	 */
+	public static final String DATASOURCE_READONLY_RYW_WINDOW = "datasource.readonly.rywwindow";
+	
+	/**
+	 * [system]
+	 * [string]
+	 * Directory where task attachments are stored. Defaults to a folder 
+	 * in the home directory of the user running the application server.
+	 */
+	public static final String ATTACHMENTS_PATH = "attachments.path";
+	
+	/**
+	 * [system+domain]
+	 * [long]
+	 * Max size (in bytes) of a single task attachment.
+	 */
+	public static final String ATTACHMENTS_MAXSIZE = "attachments.maxsize";
+	
 	/**
 	 * [user]
 	 * [string]
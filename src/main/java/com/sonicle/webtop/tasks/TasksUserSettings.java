@@ -46,8 +46,19 @@ public class TasksUserSettings extends BaseUserSettings {
 	private TasksServiceSettings ss;
 	
 	public TasksUserSettings(String serviceId, UserProfileId profileId) {
+		this(serviceId, profileId, new TasksServiceSettings(serviceId, profileId.getDomainId()));
+	}
+	
+	/**
+	 * Builds user settings reusing already available service settings 
+	 * (they must belong to profile's domain).
+	 * @param serviceId The service ID.
+	 * @param profileId The profile ID.
+	 * @param ss Service settings of profile's domain.
+	 */
+	public TasksUserSettings(String serviceId, UserProfileId profileId, TasksServiceSettings ss) {
 		super(serviceId, profileId);
-		ss = new TasksServiceSettings(serviceId, profileId.getDomainId());
+		this.ss = ss;
 	}
 	
 	public String getTaskReminderDelivery() {
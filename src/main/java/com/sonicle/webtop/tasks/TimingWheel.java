@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel (see Varghese and Lauck), not thread-safe.
+ * Each level is a ring of buckets covering {@code tick * size} millis; 
+ * deadlines beyond a level's span are kept by a coarser overflow level, 
+ * created on demand, and cascade down as time advances. Scheduling and 
+ * cancelling are O(1), advancing costs one step per elapsed tick.
+ * @param <K> The key type.
+ */
+public class TimingWheel<K> {
+	private final HashMap<K, Entry<K>> entries = new HashMap<>();
+	private final LinkedHashSet<Entry<K>> expired = new LinkedHashSet<>();
+	private final Level root;
+	
+	/**
+	 * @param tickMillis Duration of a single tick of the finest level.
+	 * @param size Number of buckets of each level.
+	 * @param startMillis Current time.
+	 */
+	public TimingWheel(long tickMillis, int size, long startMillis) {
+		this.root = new Level(tickMillis, size, startMillis);
+	}
+	
+	public int size() {
+		return entries.size();
+	}
+	
+	public boolean contains(K key) {
+		return entries.containsKey(key);
+	}
+	
+	/**
+	 * Schedules a key, replacing any previous deadline.
+	 * Keys already expired will be returned by the next {@link #advance(long)}.
+	 * @param key The key.
+	 * @param deadlineMillis The instant at which the key expires.
+	 */
+	public void schedule(K key, long deadlineMillis) {
+		cancel(key);
+		Entry<K> entry = new Entry<>(key, deadlineMillis);
+		entries.put(key, entry);
+		root.add(entry);
+	}
+	
+	/**
+	 * Removes a key.
+	 * @param key The key.
+	 * @return True if the key was scheduled.
+	 */
+	public boolean cancel(K key) {
+		Entry<K> entry = entries.remove(key);
+		if (entry == null) return false;
+		if (entry.bucket != null) entry.bucket.remove(entry);
+		entry.bucket = null;
+		return true;
+	}
+	
+	/**
+	 * Moves the wheel forward, removing and returning expired keys.
+	 * @param nowMillis Current time.
+	 * @return The expired keys, in expiration order.
+	 */
+	public List<K> advance(long nowMillis) {
+		root.advanceTo(nowMillis);
+		ArrayList<K> keys = new ArrayList<>(expired.size());
+		for (Entry<K> entry : expired) {
+			entries.remove(entry.key);
+			keys.add(entry.key);
+		}
+		expired.clear();
+		return keys;
+	}
+	
+	private void reinsert(Entry<K> entry) {
+		entry.bucket = null;
+		root.add(entry);
+	}
+	
+	private static class Entry<K> {
+		private final K key;
+		private final long deadline;
+		private LinkedHashSet<Entry<K>> bucket;
+		
+		public Entry(K key, long deadline) {
+			this.key = key;
+			this.deadline = deadline;
+		}
+	}
+	
+	private class Level {
+		private final long tick;
+		private final int size;
+		private final long interval;
+		private final ArrayList<LinkedHashSet<Entry<K>>> buckets;
+		private long currentTime;
+		private Level overflow = null;
+		
+		public Level(long tick, int size, long startMillis) {
+			this.tick = tick;
+			this.size = size;
+			this.interval = tick * size;
+			this.currentTime = startMillis - (startMillis % tick);
+			this.buckets = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				buckets.add(new LinkedHashSet<Entry<K>>());
+			}
+		}
+		
+		public void add(Entry<K> entry) {
+			LinkedHashSet<Entry<K>> bucket;
+			if (entry.deadline < currentTime + tick) {
+				bucket = expired;
+			} else if (entry.deadline < currentTime + interval) {
+				bucket = buckets.get((int)((entry.deadline / tick) % size));
+			} else {
+				if (overflow == null) overflow = new Level(interval, size, currentTime);
+				overflow.add(entry);
+				return;
+			}
+			bucket.add(entry);
+			entry.bucket = bucket;
+		}
+		
+		public void advanceTo(long nowMillis) {
+			while (currentTime + tick <= nowMillis) {
+				currentTime += tick;
+				// Coarser levels cascade first, so that their entries land 
+				// into this level before the bucket below gets flushed.
+				if (overflow != null) overflow.advanceTo(currentTime);
+				LinkedHashSet<Entry<K>> bucket = buckets.get((int)((currentTime / tick) % size));
+				if (bucket.isEmpty()) continue;
+				ArrayList<Entry<K>> flushed = new ArrayList<>(bucket);
+				bucket.clear();
+				for (Entry<K> entry : flushed) {
+					reinsert(entry);
+				}
+			}
+		}
+	}
+}
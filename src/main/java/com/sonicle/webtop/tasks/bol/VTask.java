@@ -41,6 +41,7 @@ import com.sonicle.webtop.core.sdk.UserProfileId;
 public class VTask extends OTask {
 	private String categoryDomainId;
 	private String categoryUserId;
+	private Integer parentId;
 	
 	public String getCategoryDomainId() {
 		return categoryDomainId;
@@ -58,6 +59,14 @@ public class VTask extends OTask {
 		categoryUserId = value;
 	}
 	
+	public Integer getParentId() {
+		return parentId;
+	}
+	
+	public void setParentId(Integer value) {
+		parentId = value;
+	}
+	
 	public UserProfileId getCategoryProfileId() {
 		return new UserProfileId(categoryDomainId, categoryUserId);
 	}	
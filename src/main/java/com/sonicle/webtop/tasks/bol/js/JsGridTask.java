@@ -34,6 +34,8 @@ package com.sonicle.webtop.tasks.bol.js;
 
 import com.sonicle.commons.EnumUtils;
 import com.sonicle.commons.time.DateTimeUtils;
+import com.sonicle.webtop.tasks.bol.model.TaskNode;
+import com.sonicle.webtop.tasks.bol.model.TaskOccurrence;
 import com.sonicle.webtop.tasks.model.Category;
 import com.sonicle.webtop.tasks.model.ShareFolderCategory;
 import com.sonicle.webtop.tasks.model.CategoryPropSet;
@@ -61,6 +63,11 @@ public class JsGridTask {
     public Integer categoryId;
 	public String categoryName;
     public String categoryColor;
+	public Integer parentId;
+	public Integer childCount;
+	public Integer descendantCount;
+	public Integer completedCount;
+	public Integer subtreeCompletion;
 	public String _frights;
 	public String _erights;
 	public String _profileId;
@@ -90,4 +97,19 @@ public class JsGridTask {
         _erights = folder.getElementsPerms().toString();
         _profileId = category.getProfileId().toString();
 	}
+	
+	public JsGridTask(ShareFolderCategory folder, CategoryPropSet folderProps, TaskOccurrence occurrence, DateTimeZone profileTz) {
+		this(folder, folderProps, occurrence.getTask(), profileTz);
+		startDate = DateTimeUtils.printYmdHmsWithZone(occurrence.getStartDate(), profileTz);
+		dueDate = DateTimeUtils.printYmdHmsWithZone(occurrence.getDueDate(), profileTz);
+	}
+	
+	public JsGridTask(ShareFolderCategory folder, CategoryPropSet folderProps, TaskNode node, DateTimeZone profileTz) {
+		this(folder, folderProps, node.getTask(), profileTz);
+		parentId = node.getParentId();
+		childCount = node.getStats().getChildCount();
+		descendantCount = node.getStats().getDescendantCount();
+		completedCount = node.getStats().getCompletedCount();
+		subtreeCompletion = node.getStats().getCompletion();
+	}
 }
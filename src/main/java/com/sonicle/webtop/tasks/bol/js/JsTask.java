@@ -36,6 +36,7 @@ import com.sonicle.commons.EnumUtils;
 import com.sonicle.commons.time.DateTimeUtils;
 import com.sonicle.webtop.core.sdk.UserProfileId;
 import com.sonicle.webtop.tasks.model.Task;
+import java.util.List;
 import org.joda.time.DateTimeZone;
 
 /**
@@ -56,6 +57,8 @@ public class JsTask {
 	public String status;
 	public Short percentage;
 	public String reminderDate;
+	public String recurrenceRule;
+	public List<String> tags;
 	public String _profileId;
 
 	public JsTask() {
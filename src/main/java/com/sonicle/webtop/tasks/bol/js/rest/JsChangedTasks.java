@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.bol.js.rest;
+
+import com.sonicle.commons.EnumUtils;
+import com.sonicle.commons.time.DateTimeUtils;
+import com.sonicle.webtop.tasks.bol.model.ChangedTasks;
+import com.sonicle.webtop.tasks.model.Task;
+import java.util.ArrayList;
+import org.joda.time.DateTimeZone;
+
+/**
+ *
+ * @author malbinola
+ */
+public class JsChangedTasks {
+	public String syncToken;
+	public Boolean hasMore;
+	public Boolean resyncRequired;
+	public ArrayList<Item> tasks;
+	
+	public JsChangedTasks(ChangedTasks changes) {
+		this.syncToken = (changes.getSyncToken() == null) ? null : changes.getSyncToken().toString();
+		this.hasMore = changes.hasMore();
+		this.resyncRequired = changes.isResyncRequired();
+		this.tasks = new ArrayList<>();
+		for (Task task : changes.getTasks()) {
+			this.tasks.add(new Item(task));
+		}
+	}
+	
+	public static class Item {
+		public Integer taskId;
+		public Integer categoryId;
+		public String revisionStatus;
+		public String revisionTimestamp;
+		public String publicUid;
+		public String subject;
+		public String description;
+		public String startDate;
+		public String dueDate;
+		public String completedDate;
+		public Short importance;
+		public Boolean isPrivate;
+		public String status;
+		public Short percentage;
+		public String reminderDate;
+		
+		public Item(Task task) {
+			taskId = task.getTaskId();
+			categoryId = task.getCategoryId();
+			revisionStatus = EnumUtils.toSerializedName(task.getRevisionStatus());
+			revisionTimestamp = DateTimeUtils.printYmdHmsWithZone(task.getRevisionTimestamp(), DateTimeZone.UTC);
+			publicUid = task.getPublicUid();
+			if (Task.RevisionStatus.DELETED.equals(task.getRevisionStatus())) return;
+			
+			subject = task.getSubject();
+			description = task.getDescription();
+			startDate = DateTimeUtils.printYmdHmsWithZone(task.getStartDate(), DateTimeZone.UTC);
+			dueDate = DateTimeUtils.printYmdHmsWithZone(task.getDueDate(), DateTimeZone.UTC);
+			completedDate = DateTimeUtils.printYmdHmsWithZone(task.getCompletedDate(), DateTimeZone.UTC);
+			importance = task.getImportance();
+			isPrivate = task.getIsPrivate();
+			status = EnumUtils.toSerializedName(task.getStatus());
+			percentage = task.getCompletionPercentage();
+			reminderDate = DateTimeUtils.printYmdHmsWithZone(task.getReminderDate(), DateTimeZone.UTC);
+		}
+	}
+}
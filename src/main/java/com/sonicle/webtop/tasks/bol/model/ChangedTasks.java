@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.bol.model;
+
+import com.sonicle.webtop.tasks.model.Task;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of the change feed: tasks added, modified or deleted after a 
+ * given sync token (see {@link Task#getRevisionStatus()}), in revision order.
+ * Tasks moved elsewhere are returned as deleted from the source category.
+ */
+public class ChangedTasks {
+	private final List<Task> tasks;
+	private final TaskSyncToken syncToken;
+	private final boolean hasMore;
+	private final boolean resyncRequired;
+	
+	public ChangedTasks(List<Task> tasks, TaskSyncToken syncToken, boolean hasMore) {
+		this(tasks, syncToken, hasMore, false);
+	}
+	
+	private ChangedTasks(List<Task> tasks, TaskSyncToken syncToken, boolean hasMore, boolean resyncRequired) {
+		this.tasks = tasks;
+		this.syncToken = syncToken;
+		this.hasMore = hasMore;
+		this.resyncRequired = resyncRequired;
+	}
+	
+	/**
+	 * Returns the result for a token no longer valid.
+	 * @return 
+	 */
+	public static ChangedTasks resyncRequired() {
+		return new ChangedTasks(new ArrayList<Task>(), null, false, true);
+	}
+	
+	public List<Task> getTasks() {
+		return tasks;
+	}
+	
+	/**
+	 * Returns the token to be used for requesting next changes.
+	 * @return 
+	 */
+	public TaskSyncToken getSyncToken() {
+		return syncToken;
+	}
+	
+	/**
+	 * Returns true if further changes are immediately available.
+	 * @return 
+	 */
+	public boolean hasMore() {
+		return hasMore;
+	}
+	
+	/**
+	 * Returns true if the passed token is too old: some changes may not be 
+	 * available anymore, so the client must start over without a token.
+	 * @return 
+	 */
+	public boolean isResyncRequired() {
+		return resyncRequired;
+	}
+}
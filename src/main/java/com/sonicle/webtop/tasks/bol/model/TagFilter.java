@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.bol.model;
+
+import com.sonicle.commons.web.json.JsonResult;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Tag based restriction of a tasks listing: tasks must carry all the tags 
+ * in {@code all}, at least one of {@code any} (if specified) and none of 
+ * {@code none}. Tags are expected to be already normalized.
+ */
+public class TagFilter {
+	private LinkedHashSet<String> all = new LinkedHashSet<>();
+	private LinkedHashSet<String> any = new LinkedHashSet<>();
+	private LinkedHashSet<String> none = new LinkedHashSet<>();
+	
+	public TagFilter() {}
+	
+	public TagFilter(Collection<String> all, Collection<String> any, Collection<String> none) {
+		if (all != null) this.all.addAll(all);
+		if (any != null) this.any.addAll(any);
+		if (none != null) this.none.addAll(none);
+	}
+	
+	public Set<String> getAll() {
+		return all;
+	}
+	
+	public Set<String> getAny() {
+		return any;
+	}
+	
+	public Set<String> getNone() {
+		return none;
+	}
+	
+	public boolean isEmpty() {
+		return all.isEmpty() && any.isEmpty() && none.isEmpty();
+	}
+	
+	public static TagFilter fromJson(String value) {
+		TagFilter filter = JsonResult.gson.fromJson(value, TagFilter.class);
+		// Missing JSON properties are nulled by Gson
+		return new TagFilter(filter.all, filter.any, filter.none);
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.bol.model;
+
+import com.sonicle.webtop.tasks.model.Task;
+import org.joda.time.DateTime;
+
+/**
+ * Sparse set of field changes to be applied to many tasks at once:
+ * only fields explicitly set are going to be written.
+ */
+public class TaskChanges {
+	private Task.Status status;
+	private Short completionPercentage;
+	private Short importance;
+	private DateTime dueDate;
+	private boolean dueDateSet = false;
+	
+	public Task.Status getStatus() {
+		return status;
+	}
+	
+	public TaskChanges setStatus(Task.Status status) {
+		this.status = status;
+		return this;
+	}
+	
+	public Short getCompletionPercentage() {
+		return completionPercentage;
+	}
+	
+	public TaskChanges setCompletionPercentage(Short completionPercentage) {
+		this.completionPercentage = completionPercentage;
+		return this;
+	}
+	
+	public Short getImportance() {
+		return importance;
+	}
+	
+	public TaskChanges setImportance(Short importance) {
+		this.importance = importance;
+		return this;
+	}
+	
+	public DateTime getDueDate() {
+		return dueDate;
+	}
+	
+	/**
+	 * Sets the new due date; null is allowed and clears the value.
+	 * @param dueDate
+	 * @return 
+	 */
+	public TaskChanges setDueDate(DateTime dueDate) {
+		this.dueDate = dueDate;
+		this.dueDateSet = true;
+		return this;
+	}
+	
+	public boolean isDueDateSet() {
+		return dueDateSet;
+	}
+	
+	public boolean isEmpty() {
+		return (status == null) && (completionPercentage == null) && (importance == null) && !dueDateSet;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.bol.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress and outcome of a tasks import: counters are updated as each 
+ * batch gets committed, errors collect items (or whole batches) skipped.
+ */
+public class TaskImportResult {
+	private int inserted = 0;
+	private int updated = 0;
+	private int failed = 0;
+	private int batches = 0;
+	private final List<String> errors = new ArrayList<>();
+	
+	public int getInserted() {
+		return inserted;
+	}
+	
+	public int getUpdated() {
+		return updated;
+	}
+	
+	public int getFailed() {
+		return failed;
+	}
+	
+	/**
+	 * Returns the number of committed batches.
+	 * @return 
+	 */
+	public int getBatches() {
+		return batches;
+	}
+	
+	public int getProcessed() {
+		return inserted + updated + failed;
+	}
+	
+	public List<String> getErrors() {
+		return errors;
+	}
+	
+	public void addBatch(int inserted, int updated) {
+		this.inserted += inserted;
+		this.updated += updated;
+		this.batches++;
+	}
+	
+	public void addFailed(int count, String error) {
+		this.failed += count;
+		errors.add(error);
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.bol.model;
+
+import com.sonicle.webtop.tasks.model.TaskEx;
+import org.joda.time.DateTime;
+
+/**
+ * A single occurrence of a recurring task, computed on the fly: it is not 
+ * backed by a row of its own but by the series' task, whose dates are 
+ * shifted to the occurrence.
+ */
+public class TaskOccurrence {
+	private final TaskEx task;
+	private final DateTime startDate;
+	private final DateTime dueDate;
+	
+	public TaskOccurrence(TaskEx task, DateTime startDate, DateTime dueDate) {
+		this.task = task;
+		this.startDate = startDate;
+		this.dueDate = dueDate;
+	}
+	
+	public TaskEx getTask() {
+		return task;
+	}
+	
+	public DateTime getStartDate() {
+		return startDate;
+	}
+	
+	public DateTime getDueDate() {
+		return dueDate;
+	}
+	
+	/**
+	 * Tells if this is the occurrence currently held by the task row, 
+	 * the only one that can be edited or completed.
+	 * @return 
+	 */
+	public boolean isCurrent() {
+		return (task.getStartDate() != null) ? task.getStartDate().equals(startDate) : task.getDueDate().equals(dueDate);
+	}
+}
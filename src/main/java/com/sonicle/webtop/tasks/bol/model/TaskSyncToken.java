@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.bol.model;
+
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Position within the change feed: revision timestamp of the last returned 
+ * task plus its ID, used as tie-breaker. Exchanged with clients as an opaque 
+ * string in the form {@code <millis>.<taskId>}.
+ */
+public class TaskSyncToken {
+	private final DateTime revisionTimestamp;
+	private final int taskId;
+	
+	public TaskSyncToken(DateTime revisionTimestamp, int taskId) {
+		this.revisionTimestamp = revisionTimestamp;
+		this.taskId = taskId;
+	}
+	
+	public DateTime getRevisionTimestamp() {
+		return revisionTimestamp;
+	}
+	
+	public int getTaskId() {
+		return taskId;
+	}
+	
+	@Override
+	public String toString() {
+		return revisionTimestamp.getMillis() + "." + taskId;
+	}
+	
+	/**
+	 * Parses a token previously obtained through {@link #toString()}.
+	 * @param value The token string.
+	 * @return The token or null if value is blank or malformed.
+	 */
+	public static TaskSyncToken parse(String value) {
+		if (StringUtils.isBlank(value)) return null;
+		String[] tokens = StringUtils.split(value, ".");
+		if (tokens.length != 2) return null;
+		try {
+			return new TaskSyncToken(new DateTime(Long.parseLong(tokens[0]), DateTimeZone.UTC), Integer.parseInt(tokens[1]));
+		} catch(NumberFormatException ex) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.dal;
+
+import com.sonicle.webtop.core.dal.BaseDAO;
+import com.sonicle.webtop.core.dal.DAOException;
+import com.sonicle.webtop.tasks.bol.OAttachment;
+import static com.sonicle.webtop.tasks.jooq.Tables.ATTACHMENTS;
+import static com.sonicle.webtop.tasks.jooq.Tables.TASKS;
+import com.sonicle.webtop.tasks.jooq.tables.records.AttachmentsRecord;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+
+/**
+ * Metadata of files attached to tasks: payloads live in the attachments 
+ * store, so this table is never involved in tasks listings.
+ * @author malbinola
+ */
+public class AttachmentDAO extends BaseDAO {
+	private final static AttachmentDAO INSTANCE = new AttachmentDAO();
+	public static AttachmentDAO getInstance() {
+		return INSTANCE;
+	}
+	
+	public OAttachment selectByIdTask(Connection con, String attachmentId, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select()
+			.from(ATTACHMENTS)
+			.where(
+				ATTACHMENTS.ATTACHMENT_ID.equal(attachmentId)
+				.and(ATTACHMENTS.TASK_ID.equal(taskId))
+			)
+			.fetchOneInto(OAttachment.class);
+	}
+	
+	public List<OAttachment> selectByTask(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select()
+			.from(ATTACHMENTS)
+			.where(
+				ATTACHMENTS.TASK_ID.equal(taskId)
+			)
+			.orderBy(
+				ATTACHMENTS.FILENAME.asc()
+			)
+			.fetchInto(OAttachment.class);
+	}
+	
+	/**
+	 * Returns the IDs of attachments whose task row does not exist anymore 
+	 * (eg. after a physical purge of deleted tasks).
+	 * @param con
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<String> selectOrphanIds(Connection con) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				ATTACHMENTS.ATTACHMENT_ID
+			)
+			.from(ATTACHMENTS)
+			.where(
+				DSL.notExists(
+					DSL.selectOne()
+					.from(TASKS)
+					.where(TASKS.TASK_ID.equal(ATTACHMENTS.TASK_ID))
+				)
+			)
+			.fetch(ATTACHMENTS.ATTACHMENT_ID);
+	}
+	
+	public int insert(Connection con, OAttachment item) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		AttachmentsRecord record = dsl.newRecord(ATTACHMENTS, item);
+		return dsl
+			.insertInto(ATTACHMENTS)
+			.set(record)
+			.execute();
+	}
+	
+	public int deleteByIdTask(Connection con, String attachmentId, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(ATTACHMENTS)
+			.where(
+				ATTACHMENTS.ATTACHMENT_ID.equal(attachmentId)
+				.and(ATTACHMENTS.TASK_ID.equal(taskId))
+			)
+			.execute();
+	}
+	
+	public int deleteByIds(Connection con, Collection<String> attachmentIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(ATTACHMENTS)
+			.where(
+				ATTACHMENTS.ATTACHMENT_ID.in(attachmentIds)
+			)
+			.execute();
+	}
+}
@@ -50,13 +50,14 @@ import org.jooq.DSLContext;
  */
 public class CategoryDAO extends BaseDAO {
 	private final static CategoryDAO INSTANCE = new CategoryDAO();
+	private final static SequenceIdAllocator ID_ALLOCATOR = new SequenceIdAllocator(SEQ_CATEGORIES);
 	public static CategoryDAO getInstance() {
 		return INSTANCE;
 	}
 
 	public Long getSequence(Connection con) throws DAOException {
 		DSLContext dsl = getDSL(con);
-		Long nextID = dsl.nextval(SEQ_CATEGORIES);
+		Long nextID = ID_ALLOCATOR.nextId(dsl);
 		return nextID;
 	}
 	
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.dal;
+
+import com.sonicle.webtop.core.dal.BaseDAO;
+import com.sonicle.webtop.core.dal.DAOException;
+import static com.sonicle.webtop.tasks.jooq.Tables.HIERARCHY;
+import static com.sonicle.webtop.tasks.jooq.Tables.TASKS;
+import com.sonicle.webtop.tasks.jooq.tables.Hierarchy;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record2;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+/**
+ * Closure table of the tasks hierarchy: a row for every (ancestor, descendant) 
+ * couple, at any distance. Tasks link to themselves implicitly (no depth 0 
+ * rows are stored), so a plain task does not need any row at all.
+ * @author malbinola
+ */
+public class HierarchyDAO extends BaseDAO {
+	private final static HierarchyDAO INSTANCE = new HierarchyDAO();
+	public static HierarchyDAO getInstance() {
+		return INSTANCE;
+	}
+	
+	public Integer selectParentId(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				HIERARCHY.ANCESTOR_ID
+			)
+			.from(HIERARCHY)
+			.where(
+				HIERARCHY.DESCENDANT_ID.equal(taskId)
+				.and(HIERARCHY.DEPTH.equal(1))
+			)
+			.fetchOne(HIERARCHY.ANCESTOR_ID);
+	}
+	
+	/**
+	 * Returns all descendants of passed tasks, at any depth.
+	 * Deleted tasks keep their links until compaction: they are skipped.
+	 * @param con
+	 * @param taskIds
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<Integer> selectDescendantIds(Connection con, Collection<Integer> taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.selectDistinct(
+				HIERARCHY.DESCENDANT_ID
+			)
+			.from(HIERARCHY)
+			.join(TASKS).on(TASKS.TASK_ID.equal(HIERARCHY.DESCENDANT_ID))
+			.where(
+				HIERARCHY.ANCESTOR_ID.in(taskIds)
+				.and(TaskDAO.activeCondition())
+			)
+			.fetch(HIERARCHY.DESCENDANT_ID);
+	}
+	
+	public boolean existsPath(Connection con, int ancestorId, int descendantId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl.fetchExists(
+			DSL.selectOne()
+			.from(HIERARCHY)
+			.where(
+				HIERARCHY.ANCESTOR_ID.equal(ancestorId)
+				.and(HIERARCHY.DESCENDANT_ID.equal(descendantId))
+			)
+		);
+	}
+	
+	/**
+	 * Links the subtree rooted at the passed task under a new parent: every 
+	 * node of the subtree gets a row towards the parent and each of its 
+	 * ancestors, within a single INSERT ... SELECT statement.
+	 * The subtree must not be linked to any other parent.
+	 * @param con
+	 * @param taskId The subtree root.
+	 * @param parentId The new parent.
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int insertSubtreeLinks(Connection con, int taskId, int parentId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		Hierarchy ha = HIERARCHY.as("ha");
+		Hierarchy hs = HIERARCHY.as("hs");
+		
+		Table<Record2<Integer, Integer>> ancestors = DSL
+			.select(DSL.inline(parentId).as("id"), DSL.inline(0).as("depth"))
+			.unionAll(
+				DSL.select(ha.ANCESTOR_ID, ha.DEPTH)
+				.from(ha)
+				.where(ha.DESCENDANT_ID.equal(parentId))
+			)
+			.asTable("anc");
+		Table<Record2<Integer, Integer>> subtree = DSL
+			.select(DSL.inline(taskId).as("id"), DSL.inline(0).as("depth"))
+			.unionAll(
+				DSL.select(hs.DESCENDANT_ID, hs.DEPTH)
+				.from(hs)
+				.where(hs.ANCESTOR_ID.equal(taskId))
+			)
+			.asTable("sub");
+		Field<Integer> ancId = DSL.field(DSL.name("anc", "id"), Integer.class);
+		Field<Integer> ancDepth = DSL.field(DSL.name("anc", "depth"), Integer.class);
+		Field<Integer> subId = DSL.field(DSL.name("sub", "id"), Integer.class);
+		Field<Integer> subDepth = DSL.field(DSL.name("sub", "depth"), Integer.class);
+		
+		return dsl
+			.insertInto(HIERARCHY, HIERARCHY.ANCESTOR_ID, HIERARCHY.DESCENDANT_ID, HIERARCHY.DEPTH)
+			.select(
+				DSL.select(ancId, subId, ancDepth.add(subDepth).add(1))
+				.from(ancestors)
+				.crossJoin(subtree)
+			)
+			.execute();
+	}
+	
+	/**
+	 * Unlinks the subtree rooted at the passed task from all its ancestors, 
+	 * leaving links within the subtree untouched.
+	 * @param con
+	 * @param taskId The subtree root.
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int deleteSubtreeLinks(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		Hierarchy ha = HIERARCHY.as("ha");
+		Hierarchy hs = HIERARCHY.as("hs");
+		return dsl
+			.delete(HIERARCHY)
+			.where(
+				HIERARCHY.ANCESTOR_ID.in(
+					DSL.select(ha.ANCESTOR_ID)
+					.from(ha)
+					.where(ha.DESCENDANT_ID.equal(taskId))
+				)
+				.and(
+					HIERARCHY.DESCENDANT_ID.equal(taskId)
+					.or(HIERARCHY.DESCENDANT_ID.in(
+						DSL.select(hs.DESCENDANT_ID)
+						.from(hs)
+						.where(hs.ANCESTOR_ID.equal(taskId))
+					))
+				)
+			)
+			.execute();
+	}
+	
+	/**
+	 * Removes links pointing to tasks that do not exist anymore (eg. after 
+	 * a physical purge of deleted tasks).
+	 * @param con
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int deleteOrphans(Connection con) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(HIERARCHY)
+			.where(
+				DSL.notExists(
+					DSL.selectOne()
+					.from(TASKS)
+					.where(TASKS.TASK_ID.equal(HIERARCHY.DESCENDANT_ID))
+				)
+				.or(DSL.notExists(
+					DSL.selectOne()
+					.from(TASKS)
+					.where(TASKS.TASK_ID.equal(HIERARCHY.ANCESTOR_ID))
+				))
+			)
+			.execute();
+	}
+}
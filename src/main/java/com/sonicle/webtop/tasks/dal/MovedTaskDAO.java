@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.dal;
+
+import com.sonicle.commons.EnumUtils;
+import com.sonicle.webtop.core.dal.BaseDAO;
+import com.sonicle.webtop.core.dal.DAOException;
+import com.sonicle.webtop.tasks.bol.OTask;
+import static com.sonicle.webtop.tasks.jooq.Tables.MOVED_TASKS;
+import static com.sonicle.webtop.tasks.jooq.Tables.TASKS;
+import com.sonicle.webtop.tasks.model.Task;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import org.joda.time.DateTime;
+import org.jooq.DSLContext;
+import org.jooq.Record5;
+import org.jooq.SelectSeekStep2;
+import org.jooq.impl.DSL;
+
+/**
+ * Departures of tasks moved to another category: once a task leaves a 
+ * category its row does not match it anymore, so the change feed of the 
+ * source category relies on these markers to report the removal.
+ * Markers are purged together with tombstones of deleted tasks.
+ * @author malbinola
+ */
+public class MovedTaskDAO extends BaseDAO {
+	private final static MovedTaskDAO INSTANCE = new MovedTaskDAO();
+	public static MovedTaskDAO getInstance() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Marks the departure of passed tasks from their current category, 
+	 * for the ones not already in the target one. Must be called before 
+	 * actually updating the category.
+	 * @param con
+	 * @param taskIds
+	 * @param targetCategoryId
+	 * @param revisionTimestamp Revision timestamp given to moved tasks.
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int insertByIds(Connection con, Collection<Integer> taskIds, int targetCategoryId, DateTime revisionTimestamp) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		// A previous departure from the same category is superseded
+		dsl
+			.delete(MOVED_TASKS)
+			.where(
+				DSL.row(MOVED_TASKS.TASK_ID, MOVED_TASKS.CATEGORY_ID).in(
+					DSL.select(TASKS.TASK_ID, TASKS.CATEGORY_ID)
+					.from(TASKS)
+					.where(
+						TASKS.TASK_ID.in(taskIds)
+						.and(TASKS.CATEGORY_ID.notEqual(targetCategoryId))
+					)
+				)
+			)
+			.execute();
+		
+		return dsl
+			.insertInto(MOVED_TASKS, MOVED_TASKS.TASK_ID, MOVED_TASKS.CATEGORY_ID, MOVED_TASKS.REVISION_TIMESTAMP)
+			.select(
+				DSL.select(TASKS.TASK_ID, TASKS.CATEGORY_ID, DSL.val(revisionTimestamp, MOVED_TASKS.REVISION_TIMESTAMP))
+				.from(TASKS)
+				.where(
+					TASKS.TASK_ID.in(taskIds)
+					.and(TASKS.CATEGORY_ID.notEqual(targetCategoryId))
+					.and(TaskDAO.activeCondition())
+				)
+			)
+			.execute();
+	}
+	
+	/**
+	 * Returns departures from passed categories as deleted tasks (only IDs, 
+	 * source category, revision and public UID are filled), in the same 
+	 * order of {@link TaskDAO#selectChangedByCategories}.
+	 * @param con
+	 * @param categoryIds
+	 * @param afterTimestamp
+	 * @param afterTaskId
+	 * @param until
+	 * @param limit
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<OTask> selectChangedByCategories(Connection con, Collection<Integer> categoryIds, DateTime afterTimestamp, int afterTaskId, DateTime until, int limit) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		SelectSeekStep2<Record5<Integer, Integer, DateTime, String, String>, DateTime, Integer> select = dsl
+			.select(
+				MOVED_TASKS.TASK_ID,
+				MOVED_TASKS.CATEGORY_ID,
+				MOVED_TASKS.REVISION_TIMESTAMP,
+				DSL.inline(EnumUtils.toSerializedName(Task.RevisionStatus.DELETED)).as("revision_status"),
+				TASKS.PUBLIC_UID
+			)
+			.from(MOVED_TASKS)
+			.join(TASKS).on(TASKS.TASK_ID.equal(MOVED_TASKS.TASK_ID))
+			.where(
+				MOVED_TASKS.CATEGORY_ID.in(categoryIds)
+				.and(MOVED_TASKS.REVISION_TIMESTAMP.lessThan(until))
+			)
+			.orderBy(
+				MOVED_TASKS.REVISION_TIMESTAMP.asc(),
+				MOVED_TASKS.TASK_ID.asc()
+			);
+		
+		return select
+			.seek(afterTimestamp, afterTaskId)
+			.limit(limit)
+			.fetchInto(OTask.class);
+	}
+	
+	public int deleteBefore(Connection con, DateTime revisionTimestamp) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(MOVED_TASKS)
+			.where(
+				MOVED_TASKS.REVISION_TIMESTAMP.lessThan(revisionTimestamp)
+			)
+			.execute();
+	}
+}
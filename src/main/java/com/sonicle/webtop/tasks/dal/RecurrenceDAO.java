@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.dal;
+
+import com.sonicle.webtop.core.dal.BaseDAO;
+import com.sonicle.webtop.core.dal.DAOException;
+import com.sonicle.webtop.tasks.bol.ORecurrence;
+import static com.sonicle.webtop.tasks.jooq.Tables.RECURRENCES;
+import static com.sonicle.webtop.tasks.jooq.Tables.TASKS;
+import com.sonicle.webtop.tasks.jooq.tables.records.RecurrencesRecord;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.impl.DSL;
+
+/**
+ *
+ * @author malbinola
+ */
+public class RecurrenceDAO extends BaseDAO {
+	private final static RecurrenceDAO INSTANCE = new RecurrenceDAO();
+	public static RecurrenceDAO getInstance() {
+		return INSTANCE;
+	}
+	
+	public ORecurrence selectById(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select()
+			.from(RECURRENCES)
+			.where(
+				RECURRENCES.TASK_ID.equal(taskId)
+			)
+			.fetchOneInto(ORecurrence.class);
+	}
+	
+	public Map<Integer, ORecurrence> selectByIds(Connection con, Collection<Integer> taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select()
+			.from(RECURRENCES)
+			.where(
+				RECURRENCES.TASK_ID.in(taskIds)
+			)
+			.fetchMap(RECURRENCES.TASK_ID, ORecurrence.class);
+	}
+	
+	public int insert(Connection con, ORecurrence item) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		RecurrencesRecord record = dsl.newRecord(RECURRENCES, item);
+		return dsl
+			.insertInto(RECURRENCES)
+			.set(record)
+			.execute();
+	}
+	
+	public int update(Connection con, ORecurrence item) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.update(RECURRENCES)
+			.set(RECURRENCES.RULE, item.getRule())
+			.set(RECURRENCES.START_DATE, item.getStartDate())
+			.set(RECURRENCES.OCCURRENCE, item.getOccurrence())
+			.where(
+				RECURRENCES.TASK_ID.equal(item.getTaskId())
+			)
+			.execute();
+	}
+	
+	public int[] batchUpdateOccurrence(Connection con, Map<Integer, Integer> occurrencesByTask) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		ArrayList<Query> queries = new ArrayList<>(occurrencesByTask.size());
+		for (Map.Entry<Integer, Integer> entry : occurrencesByTask.entrySet()) {
+			queries.add(dsl
+				.update(RECURRENCES)
+				.set(RECURRENCES.OCCURRENCE, entry.getValue())
+				.where(
+					RECURRENCES.TASK_ID.equal(entry.getKey())
+				)
+			);
+		}
+		return dsl
+			.batch(queries)
+			.execute();
+	}
+	
+	public int deleteById(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(RECURRENCES)
+			.where(
+				RECURRENCES.TASK_ID.equal(taskId)
+			)
+			.execute();
+	}
+	
+	public int deleteByIds(Connection con, Collection<Integer> taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(RECURRENCES)
+			.where(
+				RECURRENCES.TASK_ID.in(taskIds)
+			)
+			.execute();
+	}
+	
+	/**
+	 * Removes recurrences whose task row does not exist anymore (eg. after 
+	 * a physical purge of deleted tasks).
+	 * @param con
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int deleteOrphans(Connection con) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(RECURRENCES)
+			.where(
+				DSL.notExists(
+					DSL.selectOne()
+					.from(TASKS)
+					.where(TASKS.TASK_ID.equal(RECURRENCES.TASK_ID))
+				)
+			)
+			.execute();
+	}
+}
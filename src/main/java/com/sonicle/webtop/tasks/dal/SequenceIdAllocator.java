@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.dal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Sequence;
+import org.jooq.impl.DSL;
+
+/**
+ * Hands out IDs from in-memory blocks reserved on a DB sequence (pooled-lo 
+ * strategy): every nextval reserves the range [value, value + increment), 
+ * where increment is the one configured on the sequence itself.
+ * Ranges reserved by different nodes never overlap, so this is cluster safe;
+ * IDs are taken lock-free and only block refills are synchronized.
+ * The increment is read again on every refill, so that changes made with 
+ * ALTER SEQUENCE while the service is running are honoured.
+ */
+public class SequenceIdAllocator {
+	private final Sequence<Long> sequence;
+	private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+	
+	public SequenceIdAllocator(Sequence<Long> sequence) {
+		this.sequence = sequence;
+	}
+	
+	public long nextId(DSLContext dsl) {
+		for (;;) {
+			final Block block = current.get();
+			final long id = block.take();
+			if (id != -1) return id;
+			refill(dsl, block);
+		}
+	}
+	
+	public List<Long> nextIds(DSLContext dsl, int count) {
+		ArrayList<Long> ids = new ArrayList<>(count);
+		final Block start = current.get();
+		Block block = start;
+		long id;
+		while ((ids.size() < count) && ((id = block.take()) != -1)) {
+			ids.add(id);
+		}
+		
+		final int missing = count - ids.size();
+		if (missing > 0) {
+			synchronized(this) {
+				final int size = getBlockSize(dsl);
+				final int blocks = (missing + size - 1) / size;
+				List<Long> los = dsl
+					.select(sequence.nextval())
+					.from(DSL.table("generate_series(1, {0})", DSL.val(blocks)))
+					.fetch(0, Long.class);
+				for (Long lo : los) {
+					block = new Block(lo, lo + size);
+					while ((ids.size() < count) && ((id = block.take()) != -1)) {
+						ids.add(id);
+					}
+				}
+				// Leftovers of the last block will serve next requests, unless 
+				// a refill already installed a fresh block in the meantime
+				current.compareAndSet(start, block);
+			}
+		}
+		return ids;
+	}
+	
+	private synchronized void refill(DSLContext dsl, Block exhausted) {
+		if (current.get() != exhausted) return; // Already refilled by someone else
+		final int size = getBlockSize(dsl);
+		final long lo = dsl.nextval(sequence);
+		current.set(new Block(lo, lo + size));
+	}
+	
+	private int getBlockSize(DSLContext dsl) {
+		Record rec = dsl.fetchOne("SELECT CAST(increment AS int4) FROM information_schema.sequences WHERE sequence_schema = ? AND sequence_name = ?", sequence.getSchema().getName(), sequence.getName());
+		final Integer increment = (rec == null) ? null : rec.getValue(0, Integer.class);
+		return ((increment == null) || (increment < 1)) ? 1 : increment;
+	}
+	
+	private static class Block {
+		public static final Block EMPTY = new Block(0, 0);
+		private final AtomicLong next;
+		private final long end;
+		
+		public Block(long start, long end) {
+			this.next = new AtomicLong(start);
+			this.end = end;
+		}
+		
+		public long take() {
+			final long value = next.getAndIncrement();
+			return (value < end) ? value : -1;
+		}
+	}
+}
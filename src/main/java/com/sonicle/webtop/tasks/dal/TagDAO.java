@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.dal;
+
+import com.sonicle.webtop.core.dal.BaseDAO;
+import com.sonicle.webtop.core.dal.DAOException;
+import static com.sonicle.webtop.tasks.jooq.Tables.TAGS;
+import static com.sonicle.webtop.tasks.jooq.Tables.TASKS;
+import com.sonicle.webtop.tasks.jooq.tables.records.TagsRecord;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record2;
+import org.jooq.Row2;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+/**
+ * Free-form labels attached to tasks: tags are stored normalized, one row 
+ * for every (task, tag) couple.
+ * @author malbinola
+ */
+public class TagDAO extends BaseDAO {
+	private final static TagDAO INSTANCE = new TagDAO();
+	public static TagDAO getInstance() {
+		return INSTANCE;
+	}
+	
+	public List<String> selectByTask(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				TAGS.TAG
+			)
+			.from(TAGS)
+			.where(
+				TAGS.TASK_ID.equal(taskId)
+			)
+			.orderBy(
+				TAGS.TAG.asc()
+			)
+			.fetch(TAGS.TAG);
+	}
+	
+	/**
+	 * Returns distinct tags used by active tasks of passed categories.
+	 * @param con
+	 * @param categoryIds
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<String> selectDistinctByCategories(Connection con, Collection<Integer> categoryIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.selectDistinct(
+				TAGS.TAG
+			)
+			.from(TAGS)
+			.join(TASKS).on(TAGS.TASK_ID.equal(TASKS.TASK_ID))
+			.where(
+				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(TaskDAO.activeCondition())
+			)
+			.orderBy(
+				TAGS.TAG.asc()
+			)
+			.fetch(TAGS.TAG);
+	}
+	
+	/**
+	 * Returns the IDs of active tasks of a category, grouped by tag.
+	 * @param con
+	 * @param categoryId
+	 * @return
+	 * @throws DAOException 
+	 */
+	public Map<String, List<Integer>> selectTaskIdsByCategoryGroupedByTag(Connection con, int categoryId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				TAGS.TAG,
+				TAGS.TASK_ID
+			)
+			.from(TAGS)
+			.join(TASKS).on(TAGS.TASK_ID.equal(TASKS.TASK_ID))
+			.where(
+				TASKS.CATEGORY_ID.equal(categoryId)
+				.and(TaskDAO.activeCondition())
+			)
+			.fetchGroups(TAGS.TAG, TAGS.TASK_ID);
+	}
+	
+	public int[] batchInsert(Connection con, int taskId, Collection<String> tags) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		ArrayList<TagsRecord> records = new ArrayList<>(tags.size());
+		for (String tag : tags) {
+			records.add(new TagsRecord(taskId, tag));
+		}
+		return dsl
+			.batchInsert(records)
+			.execute();
+	}
+	
+	/**
+	 * Copies tags of source tasks onto their copies, DB side.
+	 * @param con
+	 * @param newIdsBySourceId New task IDs, keyed by source task ID.
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int insertCopiesByIds(Connection con, Map<Integer, Integer> newIdsBySourceId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		Row2<Integer, Integer>[] rows = newCopyRows(newIdsBySourceId.size());
+		int i = 0;
+		for (Map.Entry<Integer, Integer> entry : newIdsBySourceId.entrySet()) {
+			rows[i++] = DSL.row(entry.getKey(), entry.getValue());
+		}
+		Table<Record2<Integer, Integer>> copies = DSL.values(rows).as("copies", "source_id", "new_id");
+		Field<Integer> sourceId = copies.field("source_id", Integer.class);
+		Field<Integer> newId = copies.field("new_id", Integer.class);
+		
+		return dsl
+			.insertInto(TAGS,
+				TAGS.TASK_ID,
+				TAGS.TAG
+			)
+			.select(
+				dsl.select(
+					newId,
+					TAGS.TAG
+				)
+				.from(TAGS)
+				.join(copies).on(TAGS.TASK_ID.equal(sourceId))
+			)
+			.execute();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Row2<Integer, Integer>[] newCopyRows(int size) {
+		return new Row2[size];
+	}
+	
+	public int deleteByTask(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(TAGS)
+			.where(
+				TAGS.TASK_ID.equal(taskId)
+			)
+			.execute();
+	}
+	
+	/**
+	 * Removes tags whose task row does not exist anymore (eg. after 
+	 * a physical purge of deleted tasks).
+	 * @param con
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int deleteOrphans(Connection con) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(TAGS)
+			.where(
+				DSL.notExists(
+					DSL.selectOne()
+					.from(TASKS)
+					.where(TASKS.TASK_ID.equal(TAGS.TASK_ID))
+				)
+			)
+			.execute();
+	}
+}
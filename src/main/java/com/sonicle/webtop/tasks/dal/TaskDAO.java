@@ -39,16 +39,37 @@ import com.sonicle.webtop.core.dal.BaseDAO;
 import com.sonicle.webtop.core.dal.DAOException;
 import com.sonicle.webtop.tasks.bol.OTask;
 import com.sonicle.webtop.tasks.bol.VTask;
+import com.sonicle.webtop.tasks.bol.model.TaskChanges;
+import com.sonicle.webtop.tasks.bol.model.TaskSubtreeStats;
+import com.sonicle.webtop.tasks.jooq.tables.Hierarchy;
 import static com.sonicle.webtop.tasks.jooq.Tables.CATEGORIES;
+import static com.sonicle.webtop.tasks.jooq.Tables.HIERARCHY;
+import static com.sonicle.webtop.tasks.jooq.Tables.RECURRENCES;
 import com.sonicle.webtop.tasks.jooq.tables.records.TasksRecord;
 import com.sonicle.webtop.tasks.model.Task;
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.jooq.Condition;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Query;
+import org.jooq.Record;
+import org.jooq.Record3;
+import org.jooq.Record5;
+import org.jooq.Result;
+import org.jooq.Row3;
+import org.jooq.SelectConditionStep;
+import org.jooq.SelectSeekStep2;
+import org.jooq.SortField;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 
 /**
@@ -57,15 +78,35 @@ import org.jooq.impl.DSL;
  */
 public class TaskDAO extends BaseDAO {
 	private final static TaskDAO INSTANCE = new TaskDAO();
+	private final static SequenceIdAllocator ID_ALLOCATOR = new SequenceIdAllocator(SEQ_TASKS);
 	public static TaskDAO getInstance() {
 		return INSTANCE;
 	}
+	
+	/**
+	 * Full-text column maintained by a trigger (not part of generated model).
+	 */
+	private static final Field<Object> SEARCH_VECTOR = DSL.field(DSL.name("tasks", "tasks", "search_vector"));
+	
+	/**
+	 * Max length of the description returned by list queries: full text is 
+	 * only loaded when a single task is fetched (see {@link #selectById}).
+	 */
+	public static final int DESCRIPTION_PREVIEW_LENGTH = 1000;
+	
+	private static final int CURSOR_FETCH_SIZE = 200;
+	private static final char LIKE_ESCAPE = '!';
 
 	public Long getSequence(Connection con) throws DAOException {
 		DSLContext dsl = getDSL(con);
-		Long nextID = dsl.nextval(SEQ_TASKS);
+		Long nextID = ID_ALLOCATOR.nextId(dsl);
 		return nextID;
 	}
+	
+	public List<Long> getSequences(Connection con, int count) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return ID_ALLOCATOR.nextIds(dsl, count);
+	}
 
 	public List<VTask> viewByCategoryPattern(Connection con, int categoryId, String pattern) throws DAOException {
 		DSLContext dsl = getDSL(con);
@@ -78,18 +119,7 @@ public class TaskDAO extends BaseDAO {
 		
 		return dsl
 			.select(
-				TASKS.TASK_ID,
-				TASKS.CATEGORY_ID,
-				TASKS.PUBLIC_UID,
-				TASKS.SUBJECT,
-				TASKS.DESCRIPTION,
-				TASKS.START_DATE,
-				TASKS.DUE_DATE,
-				TASKS.IMPORTANCE,
-				TASKS.IS_PRIVATE,
-				TASKS.STATUS,
-				TASKS.COMPLETION_PERCENTAGE,
-				TASKS.REMINDER_DATE
+				listFields()
 			)
 			.select(
 				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
@@ -99,21 +129,71 @@ public class TaskDAO extends BaseDAO {
 			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
 			.where(
 				TASKS.CATEGORY_ID.equal(categoryId)
+				.and(activeCondition())
 				.and(
-					TASKS.REVISION_STATUS.equal(EnumUtils.toSerializedName(Task.RevisionStatus.NEW))
-					.or(TASKS.REVISION_STATUS.equal(EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED)))
+					patternCndt
 				)
+			)
+			.orderBy(
+				TASKS.SUBJECT.asc()
+			)
+			.fetchInto(VTask.class);
+	}
+	
+	public List<VTask> viewByCategoriesPattern(Connection con, Collection<Integer> categoryIds, String pattern) throws DAOException {
+		return viewByCategoriesPattern(con, categoryIds, pattern, null);
+	}
+	
+	/**
+	 * Same as {@link #viewByCategoriesPattern(Connection, Collection, String)} 
+	 * but optionally restricted to a set of task IDs, which is bound as a 
+	 * single array parameter (no IN-list, whatever its size).
+	 * @param con
+	 * @param categoryIds
+	 * @param pattern
+	 * @param taskIds Task IDs to look into, or null to not restrict.
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<VTask> viewByCategoriesPattern(Connection con, Collection<Integer> categoryIds, String pattern, Integer[] taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		Condition patternCndt = DSL.trueCondition();
+		if (!StringUtils.isBlank(pattern)) {
+			patternCndt = TASKS.SUBJECT.likeIgnoreCase(pattern)
+				.or(TASKS.DESCRIPTION.likeIgnoreCase(pattern));
+		}
+		Condition idsCndt = DSL.trueCondition();
+		if (taskIds != null) {
+			idsCndt = DSL.condition("{0} = any({1})", TASKS.TASK_ID, DSL.val(taskIds));
+		}
+		
+		return dsl
+			.select(
+				listFields()
+			)
+			.select(
+				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
+				CATEGORIES.USER_ID.as("category_user_id")
+			)
+			.from(TASKS)
+			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
+			.where(
+				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(activeCondition())
 				.and(
 					patternCndt
 				)
+				.and(idsCndt)
 			)
 			.orderBy(
-				TASKS.SUBJECT.asc()
+				TASKS.SUBJECT.asc(),
+				TASKS.TASK_ID.asc()
 			)
 			.fetchInto(VTask.class);
 	}
 	
-	public List<VTask> viewUpcomingByCategoriesPattern(Connection con, Collection<Integer> categoryIds, String pattern) throws DAOException {
+	public List<VTask> viewByCategoriesPatternSeek(Connection con, Collection<Integer> categoryIds, String pattern, String afterSubject, Integer afterTaskId, int limit) throws DAOException {
 		DSLContext dsl = getDSL(con);
 		
 		Condition patternCndt = DSL.trueCondition();
@@ -122,20 +202,211 @@ public class TaskDAO extends BaseDAO {
 				.or(TASKS.DESCRIPTION.likeIgnoreCase(pattern));
 		}
 		
+		SelectSeekStep2<Record, String, Integer> select = dsl
+			.select(
+				listFields()
+			)
+			.select(
+				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
+				CATEGORIES.USER_ID.as("category_user_id")
+			)
+			.from(TASKS)
+			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
+			.where(
+				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(activeCondition())
+				.and(
+					patternCndt
+				)
+			)
+			.orderBy(
+				TASKS.SUBJECT.asc(),
+				TASKS.TASK_ID.asc()
+			);
+		
+		if ((afterSubject == null) || (afterTaskId == null)) {
+			return select
+				.limit(limit)
+				.fetchInto(VTask.class);
+		} else {
+			return select
+				.seek(afterSubject, afterTaskId)
+				.limit(limit)
+				.fetchInto(VTask.class);
+		}
+	}
+	
+	/**
+	 * Lists a page of the direct children of a task (or of root tasks), 
+	 * using the same keyset pagination of plain listings.
+	 * @param con
+	 * @param categoryIds
+	 * @param parentId The parent task ID, or null to list root tasks.
+	 * @param afterSubject
+	 * @param afterTaskId
+	 * @param limit
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<VTask> viewChildrenByCategoriesSeek(Connection con, Collection<Integer> categoryIds, Integer parentId, String afterSubject, Integer afterTaskId, int limit) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		Condition parentCndt;
+		if (parentId == null) {
+			parentCndt = DSL.notExists(
+				DSL.selectOne()
+				.from(HIERARCHY)
+				.where(
+					HIERARCHY.DESCENDANT_ID.equal(TASKS.TASK_ID)
+					.and(HIERARCHY.DEPTH.equal(1))
+				)
+			);
+		} else {
+			parentCndt = TASKS.TASK_ID.in(
+				DSL.select(HIERARCHY.DESCENDANT_ID)
+				.from(HIERARCHY)
+				.where(
+					HIERARCHY.ANCESTOR_ID.equal(parentId)
+					.and(HIERARCHY.DEPTH.equal(1))
+				)
+			);
+		}
+		
+		SelectSeekStep2<Record, String, Integer> select = dsl
+			.select(
+				listFields()
+			)
+			.select(
+				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
+				CATEGORIES.USER_ID.as("category_user_id"),
+				DSL.inline(parentId, Integer.class).as("parent_id")
+			)
+			.from(TASKS)
+			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
+			.where(
+				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(activeCondition())
+				.and(parentCndt)
+			)
+			.orderBy(
+				TASKS.SUBJECT.asc(),
+				TASKS.TASK_ID.asc()
+			);
+		
+		if ((afterSubject == null) || (afterTaskId == null)) {
+			return select
+				.limit(limit)
+				.fetchInto(VTask.class);
+		} else {
+			return select
+				.seek(afterSubject, afterTaskId)
+				.limit(limit)
+				.fetchInto(VTask.class);
+		}
+	}
+	
+	/**
+	 * Lists the whole subtree rooted at the passed task (root included), 
+	 * each task carrying the ID of its parent.
+	 * @param con
+	 * @param taskId
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<VTask> viewSubtreeById(Connection con, int taskId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		Hierarchy hp = HIERARCHY.as("hp");
 		return dsl
 			.select(
-				TASKS.TASK_ID,
-				TASKS.CATEGORY_ID,
-				TASKS.PUBLIC_UID,
-				TASKS.SUBJECT,
-				TASKS.DESCRIPTION,
-				TASKS.START_DATE,
-				TASKS.DUE_DATE,
-				TASKS.IMPORTANCE,
-				TASKS.IS_PRIVATE,
-				TASKS.STATUS,
-				TASKS.COMPLETION_PERCENTAGE,
-				TASKS.REMINDER_DATE
+				listFields()
+			)
+			.select(
+				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
+				CATEGORIES.USER_ID.as("category_user_id"),
+				hp.ANCESTOR_ID.as("parent_id")
+			)
+			.from(TASKS)
+			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
+			.leftOuterJoin(hp).on(hp.DESCENDANT_ID.equal(TASKS.TASK_ID).and(hp.DEPTH.equal(1)))
+			.where(
+				TASKS.TASK_ID.equal(taskId)
+				.or(TASKS.TASK_ID.in(
+					DSL.select(HIERARCHY.DESCENDANT_ID)
+					.from(HIERARCHY)
+					.where(HIERARCHY.ANCESTOR_ID.equal(taskId))
+				))
+			)
+			.and(activeCondition())
+			.orderBy(
+				TASKS.SUBJECT.asc(),
+				TASKS.TASK_ID.asc()
+			)
+			.fetchInto(VTask.class);
+	}
+	
+	/**
+	 * Computes the roll-up of active descendants of passed tasks, with a 
+	 * single grouped query over the closure table.
+	 * @param con
+	 * @param taskIds
+	 * @return Stats by task ID; tasks without descendants are not included.
+	 * @throws DAOException 
+	 */
+	public Map<Integer, TaskSubtreeStats> selectSubtreeStatsByIds(Connection con, Collection<Integer> taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		Field<Integer> childCount = DSL.count(DSL.decode().when(HIERARCHY.DEPTH.equal(1), DSL.inline(1))).as("child_count");
+		Field<Integer> descendantCount = DSL.count().as("descendant_count");
+		Field<Integer> completedCount = DSL.count(DSL.decode().when(TASKS.STATUS.equal(EnumUtils.toSerializedName(Task.Status.COMPLETED)), DSL.inline(1))).as("completed_count");
+		Field<BigDecimal> completion = DSL.avg(TASKS.COMPLETION_PERCENTAGE).as("completion");
+		
+		Result<Record5<Integer, Integer, Integer, Integer, BigDecimal>> result = dsl
+			.select(
+				HIERARCHY.ANCESTOR_ID,
+				childCount,
+				descendantCount,
+				completedCount,
+				completion
+			)
+			.from(HIERARCHY)
+			.join(TASKS).on(TASKS.TASK_ID.equal(HIERARCHY.DESCENDANT_ID))
+			.where(
+				HIERARCHY.ANCESTOR_ID.in(taskIds)
+				.and(activeCondition())
+			)
+			.groupBy(
+				HIERARCHY.ANCESTOR_ID
+			)
+			.fetch();
+		
+		HashMap<Integer, TaskSubtreeStats> map = new HashMap<>(result.size());
+		for (Record5<Integer, Integer, Integer, Integer, BigDecimal> record : result) {
+			BigDecimal avg = record.value5();
+			map.put(record.value1(), new TaskSubtreeStats(record.value2(), record.value3(), record.value4(), (avg != null) ? avg.intValue() : 0));
+		}
+		return map;
+	}
+	
+	public List<VTask> viewByCategoriesQuery(Connection con, Collection<Integer> categoryIds, String query, int limit) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		final String tsQuery = toPrefixTsQuery(query);
+		final String infix = "%" + escapeLike(StringUtils.defaultString(query).trim().toLowerCase()) + "%";
+		
+		// Matches either words (GIN over search_vector) or substrings (trigram GIN)
+		Condition searchCndt = TASKS.SUBJECT.likeIgnoreCase(infix, LIKE_ESCAPE)
+			.or(TASKS.DESCRIPTION.likeIgnoreCase(infix, LIKE_ESCAPE));
+		ArrayList<SortField<?>> sortFields = new ArrayList<>();
+		if (tsQuery != null) {
+			searchCndt = DSL.condition("{0} @@ to_tsquery('pg_catalog.simple', {1})", SEARCH_VECTOR, DSL.val(tsQuery))
+				.or(searchCndt);
+			sortFields.add(DSL.field("ts_rank({0}, to_tsquery('pg_catalog.simple', {1}))", Float.class, SEARCH_VECTOR, DSL.val(tsQuery)).desc());
+		}
+		sortFields.add(TASKS.SUBJECT.asc());
+		sortFields.add(TASKS.TASK_ID.asc());
+		
+		return dsl
+			.select(
+				listFields()
 			)
 			.select(
 				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
@@ -145,10 +416,40 @@ public class TaskDAO extends BaseDAO {
 			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
 			.where(
 				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(activeCondition())
 				.and(
-					TASKS.REVISION_STATUS.equal(EnumUtils.toSerializedName(Task.RevisionStatus.NEW))
-					.or(TASKS.REVISION_STATUS.equal(EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED)))
+					searchCndt
 				)
+			)
+			.orderBy(
+				sortFields
+			)
+			.limit(limit)
+			.fetchInto(VTask.class);
+	}
+	
+	public List<VTask> viewUpcomingByCategoriesPattern(Connection con, Collection<Integer> categoryIds, String pattern) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		Condition patternCndt = DSL.trueCondition();
+		if (!StringUtils.isBlank(pattern)) {
+			patternCndt = TASKS.SUBJECT.likeIgnoreCase(pattern)
+				.or(TASKS.DESCRIPTION.likeIgnoreCase(pattern));
+		}
+		
+		return dsl
+			.select(
+				listFields()
+			)
+			.select(
+				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
+				CATEGORIES.USER_ID.as("category_user_id")
+			)
+			.from(TASKS)
+			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
+			.where(
+				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(activeCondition())
 				.and(
 					TASKS.DUE_DATE.isNotNull()
 					.and(TASKS.STATUS.notIn(EnumUtils.toSerializedName(Task.Status.COMPLETED), EnumUtils.toSerializedName(Task.Status.DEFERRED)))
@@ -163,16 +464,20 @@ public class TaskDAO extends BaseDAO {
 			.fetchInto(VTask.class);
 	}
 
-	public List<VTask> viewExpridedForUpdateByUntil(Connection con, DateTime until) throws DAOException {
+	/**
+	 * Lists recurring tasks whose current occurrence starts before the 
+	 * passed instant: series starting later have no occurrence before it.
+	 * @param con
+	 * @param categoryIds
+	 * @param until
+	 * @return
+	 * @throws DAOException 
+	 */
+	public List<VTask> viewRecurringByCategoriesUntil(Connection con, Collection<Integer> categoryIds, DateTime until) throws DAOException {
 		DSLContext dsl = getDSL(con);
-		
 		return dsl
 			.select(
-				TASKS.TASK_ID,
-				TASKS.CATEGORY_ID,
-				TASKS.SUBJECT,
-				TASKS.REMINDER_DATE,
-				TASKS.PUBLIC_UID
+				listFields()
 			)
 			.select(
 				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
@@ -180,32 +485,117 @@ public class TaskDAO extends BaseDAO {
 			)
 			.from(TASKS)
 			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
+			.join(RECURRENCES).on(TASKS.TASK_ID.equal(RECURRENCES.TASK_ID))
 			.where(
-				TASKS.REMINDER_DATE.isNotNull()
-				.and(
-					TASKS.REVISION_STATUS.equal(EnumUtils.toSerializedName(Task.RevisionStatus.NEW))
-					.or(TASKS.REVISION_STATUS.equal(EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED)))
-				)
-				.and(TASKS.REMINDER_DATE.lessThan(until))
+				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(activeCondition())
+				.and(DSL.coalesce(TASKS.START_DATE, TASKS.DUE_DATE).lessThan(until))
 			)
 			.orderBy(
-				TASKS.REMINDER_DATE.asc(),TASKS.SUBJECT.asc()
+				TASKS.SUBJECT.asc(),
+				TASKS.TASK_ID.asc()
 			)
+			.fetchInto(VTask.class);
+	}
+	
+	/**
+	 * Locks passed tasks, if they still have a reminder, skipping rows 
+	 * already locked by others.
+	 */
+	public List<VTask> viewExpiredForUpdateSkipLockedByIds(Connection con, Collection<Integer> taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return selectReminders(dsl, TASKS.TASK_ID.in(taskIds))
 			.forUpdate()
+			.of(TASKS)
+			.skipLocked()
 			.fetchInto(VTask.class);
 	}
 	
-	public int updateRemindedOn(Connection con, int taskId, DateTime remindedOn) throws DAOException {
+	public List<VTask> viewRemindersByUntil(Connection con, DateTime until) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return selectReminders(dsl, TASKS.REMINDER_DATE.lessThan(until))
+			.fetchInto(VTask.class);
+	}
+	
+	public List<VTask> viewRemindersByIdsCategoriesUntil(Connection con, Collection<Integer> taskIds, Collection<Integer> categoryIds, DateTime until) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return selectReminders(dsl, 
+				TASKS.REMINDER_DATE.lessThan(until)
+				.and(
+					TASKS.TASK_ID.in(taskIds)
+					.or(TASKS.CATEGORY_ID.in(categoryIds))
+				)
+			)
+			.fetchInto(VTask.class);
+	}
+	
+	public int updateRemindedOnByIds(Connection con, Collection<Integer> taskIds, DateTime remindedOn) throws DAOException {
 		DSLContext dsl = getDSL(con);
 		return dsl
 			.update(TASKS)
 			.set(TASKS.REMINDED_ON, remindedOn)
 			.set(TASKS.REMINDER_DATE, (DateTime) null)
 			.where(
-				TASKS.TASK_ID.equal(taskId)
+				TASKS.TASK_ID.in(taskIds)
+				.and(TASKS.REMINDER_DATE.isNotNull())
 			)
 			.execute();
-	}	
+	}
+	
+	public List<OTask> selectChangedByCategories(Connection con, Collection<Integer> categoryIds, DateTime afterTimestamp, Integer afterTaskId, DateTime until, int limit) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		// Without a starting point only active rows are of interest
+		Condition statusCndt = (afterTimestamp == null) ? activeCondition() : DSL.trueCondition();
+		
+		SelectSeekStep2<Record, DateTime, Integer> select = dsl
+			.select()
+			.from(TASKS)
+			.where(
+				TASKS.CATEGORY_ID.in(categoryIds)
+				.and(statusCndt)
+				.and(TASKS.REVISION_TIMESTAMP.lessThan(until))
+			)
+			.orderBy(
+				TASKS.REVISION_TIMESTAMP.asc(),
+				TASKS.TASK_ID.asc()
+			);
+		
+		if ((afterTimestamp == null) || (afterTaskId == null)) {
+			return select
+				.limit(limit)
+				.fetchInto(OTask.class);
+		} else {
+			return select
+				.seek(afterTimestamp, afterTaskId)
+				.limit(limit)
+				.fetchInto(OTask.class);
+		}
+	}
+	
+	/**
+	 * Opens a cursor over active tasks of the specified category. 
+	 * Rows are fetched from the DB in small chunks (on PostgreSQL this 
+	 * requires the connection not to be in auto-commit mode).
+	 * @param con
+	 * @param categoryId
+	 * @return The cursor, it must be closed by the caller.
+	 * @throws DAOException 
+	 */
+	public Cursor<TasksRecord> cursorByCategory(Connection con, int categoryId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.selectFrom(TASKS)
+			.where(
+				TASKS.CATEGORY_ID.equal(categoryId)
+				.and(activeCondition())
+			)
+			.orderBy(
+				TASKS.TASK_ID.asc()
+			)
+			.fetchSize(CURSOR_FETCH_SIZE)
+			.fetchLazy();
+	}
 	
 	public OTask selectById(Connection con, int taskId) throws DAOException {
 		DSLContext dsl = getDSL(con);
@@ -216,6 +606,78 @@ public class TaskDAO extends BaseDAO {
 			.fetchOneInto(OTask.class);
 	}
 	
+	/**
+	 * Locks passed active tasks that have a recurrence, together with their 
+	 * recurrence rows, returning tasks as they are now. Rows are locked in 
+	 * ID order, so that concurrent advances of the same series are serialized.
+	 * @param con
+	 * @param taskIds
+	 * @return
+	 * @throws DAOException 
+	 */
+	public Map<Integer, OTask> selectRecurringForUpdateByIds(Connection con, Collection<Integer> taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				TASKS.fields()
+			)
+			.from(TASKS)
+			.join(RECURRENCES).on(TASKS.TASK_ID.equal(RECURRENCES.TASK_ID))
+			.where(
+				TASKS.TASK_ID.in(taskIds)
+				.and(activeCondition())
+			)
+			.orderBy(
+				TASKS.TASK_ID.asc()
+			)
+			.forUpdate()
+			.fetchMap(TASKS.TASK_ID, OTask.class);
+	}
+	
+	public Map<Integer, Integer> selectCategoryIdsByIds(Connection con, Collection<Integer> taskIds) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				TASKS.TASK_ID,
+				TASKS.CATEGORY_ID
+			)
+			.from(TASKS)
+			.where(
+				TASKS.TASK_ID.in(taskIds)
+			)
+			.fetchMap(TASKS.TASK_ID, TASKS.CATEGORY_ID);
+	}
+	
+	public List<Integer> selectActiveIdsByCategory(Connection con, int categoryId) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				TASKS.TASK_ID
+			)
+			.from(TASKS)
+			.where(
+				TASKS.CATEGORY_ID.equal(categoryId)
+				.and(activeCondition())
+			)
+			.fetch(TASKS.TASK_ID);
+	}
+	
+	public Map<String, Integer> selectIdsByCategoryPublicUids(Connection con, int categoryId, Collection<String> publicUids) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.select(
+				TASKS.PUBLIC_UID,
+				TASKS.TASK_ID
+			)
+			.from(TASKS)
+			.where(
+				TASKS.CATEGORY_ID.equal(categoryId)
+				.and(TASKS.PUBLIC_UID.in(publicUids))
+				.and(activeCondition())
+			)
+			.fetchMap(TASKS.PUBLIC_UID, TASKS.TASK_ID);
+	}
+	
 	public int insert(Connection con, OTask item, DateTime revisionTimestamp) throws DAOException {
 		DSLContext dsl = getDSL(con);
 		item.setRevisionStatus(EnumUtils.toSerializedName(Task.RevisionStatus.NEW));
@@ -228,6 +690,53 @@ public class TaskDAO extends BaseDAO {
 			.execute();
 	}
 	
+	public int[] batchInsert(Connection con, Collection<OTask> items, DateTime revisionTimestamp) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		ArrayList<TasksRecord> records = new ArrayList<>(items.size());
+		for (OTask item : items) {
+			item.setRevisionStatus(EnumUtils.toSerializedName(Task.RevisionStatus.NEW));
+			item.setRevisionTimestamp(revisionTimestamp);
+			item.setRevisionSequence(0);
+			records.add(dsl.newRecord(TASKS, item));
+		}
+		return dsl
+			.batchInsert(records)
+			.execute();
+	}
+	
+	/**
+	 * Updates content fields (reminder excluded) of many tasks, sending 
+	 * all statements in a single JDBC batch.
+	 */
+	public int[] batchUpdateContent(Connection con, Collection<OTask> items, DateTime revisionTimestamp) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		ArrayList<Query> queries = new ArrayList<>(items.size());
+		for (OTask item : items) {
+			item.setRevisionStatus(EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED));
+			item.setRevisionTimestamp(revisionTimestamp);
+			queries.add(dsl
+				.update(TASKS)
+				.set(TASKS.REVISION_STATUS, item.getRevisionStatus())
+				.set(TASKS.REVISION_TIMESTAMP, item.getRevisionTimestamp())
+				.set(TASKS.SUBJECT, item.getSubject())
+				.set(TASKS.DESCRIPTION, item.getDescription())
+				.set(TASKS.START_DATE, item.getStartDate())
+				.set(TASKS.DUE_DATE, item.getDueDate())
+				.set(TASKS.COMPLETED_DATE, item.getCompletedDate())
+				.set(TASKS.IMPORTANCE, item.getImportance())
+				.set(TASKS.IS_PRIVATE, item.getIsPrivate())
+				.set(TASKS.STATUS, item.getStatus())
+				.set(TASKS.COMPLETION_PERCENTAGE, item.getCompletionPercentage())
+				.where(
+					TASKS.TASK_ID.equal(item.getTaskId())
+				)
+			);
+		}
+		return dsl
+			.batch(queries)
+			.execute();
+	}
+	
 	public int update(Connection con, OTask item, DateTime revisionTimestamp) throws DAOException {
 		DSLContext dsl = getDSL(con);
 		item.setRevisionStatus(EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED));
@@ -253,6 +762,42 @@ public class TaskDAO extends BaseDAO {
 			.execute();
 	}
 	
+	/**
+	 * Moves tasks onto another occurrence of their series: dates are 
+	 * replaced and progress info is reset.
+	 * @param con
+	 * @param items
+	 * @param revisionTimestamp
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int[] batchUpdateOccurrence(Connection con, Collection<OTask> items, DateTime revisionTimestamp) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		ArrayList<Query> queries = new ArrayList<>(items.size());
+		for (OTask item : items) {
+			item.setRevisionStatus(EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED));
+			item.setRevisionTimestamp(revisionTimestamp);
+			queries.add(dsl
+				.update(TASKS)
+				.set(TASKS.REVISION_STATUS, item.getRevisionStatus())
+				.set(TASKS.REVISION_TIMESTAMP, item.getRevisionTimestamp())
+				.set(TASKS.START_DATE, item.getStartDate())
+				.set(TASKS.DUE_DATE, item.getDueDate())
+				.set(TASKS.COMPLETED_DATE, item.getCompletedDate())
+				.set(TASKS.STATUS, item.getStatus())
+				.set(TASKS.COMPLETION_PERCENTAGE, item.getCompletionPercentage())
+				.set(TASKS.REMINDER_DATE, item.getReminderDate())
+				.set(TASKS.REMINDED_ON, item.getRemindedOn())
+				.where(
+					TASKS.TASK_ID.equal(item.getTaskId())
+				)
+			);
+		}
+		return dsl
+			.batch(queries)
+			.execute();
+	}
+	
 	public int updateCategory(Connection con, int contactId, int categoryId, DateTime revisionTimestamp) throws DAOException {
 		DSLContext dsl = getDSL(con);
 		return dsl
@@ -266,6 +811,137 @@ public class TaskDAO extends BaseDAO {
 			.execute();
 	}
 	
+	/**
+	 * Applies the same changes to many tasks. Setting the status also keeps 
+	 * the completion date consistent, as done when editing a single task: 
+	 * it is set (if missing) on completed tasks and cleared otherwise.
+	 * @param con
+	 * @param taskIds
+	 * @param changes
+	 * @param revisionTimestamp Revision timestamp, also used as completion date.
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int updateByIds(Connection con, Collection<Integer> taskIds, TaskChanges changes, DateTime revisionTimestamp) throws DAOException {
+		final String DELETED = EnumUtils.toSerializedName(Task.RevisionStatus.DELETED);
+		DSLContext dsl = getDSL(con);
+		
+		FieldsMap fieldValues = new FieldsMap();
+		if (changes.getStatus() != null) {
+			fieldValues.put(TASKS.STATUS, EnumUtils.toSerializedName(changes.getStatus()));
+			if (Task.Status.COMPLETED.equals(changes.getStatus())) {
+				fieldValues.put(TASKS.COMPLETED_DATE, DSL.coalesce(TASKS.COMPLETED_DATE, DSL.val(revisionTimestamp, TASKS.COMPLETED_DATE.getDataType())));
+			} else {
+				fieldValues.put(TASKS.COMPLETED_DATE, null);
+			}
+		}
+		if (changes.getCompletionPercentage() != null) fieldValues.put(TASKS.COMPLETION_PERCENTAGE, changes.getCompletionPercentage());
+		if (changes.getImportance() != null) fieldValues.put(TASKS.IMPORTANCE, changes.getImportance());
+		if (changes.isDueDateSet()) fieldValues.put(TASKS.DUE_DATE, changes.getDueDate());
+		fieldValues.put(TASKS.REVISION_STATUS, EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED));
+		fieldValues.put(TASKS.REVISION_TIMESTAMP, revisionTimestamp);
+		
+		return dsl
+			.update(TASKS)
+			.set(fieldValues)
+			.where(
+				TASKS.TASK_ID.in(taskIds)
+				.and(TASKS.REVISION_STATUS.notEqual(DELETED))
+			)
+			.execute();
+	}
+	
+	public int updateCategoryByIds(Connection con, Collection<Integer> taskIds, int categoryId, DateTime revisionTimestamp) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		final String DELETED = EnumUtils.toSerializedName(Task.RevisionStatus.DELETED);
+		return dsl
+			.update(TASKS)
+			.set(TASKS.CATEGORY_ID, categoryId)
+			.set(TASKS.REVISION_STATUS, EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED))
+			.set(TASKS.REVISION_TIMESTAMP, revisionTimestamp)
+			.where(
+				TASKS.TASK_ID.in(taskIds)
+				.and(TASKS.CATEGORY_ID.notEqual(categoryId))
+				.and(TASKS.REVISION_STATUS.notEqual(DELETED))
+			)
+			.execute();
+	}
+	
+	/**
+	 * Duplicates tasks into the specified category using a single 
+	 * INSERT ... SELECT statement.
+	 * @param con
+	 * @param newIdsBySourceId New task IDs, keyed by the ID of the task to copy.
+	 * @param publicUidsByNewId New public UIDs, keyed by new task ID.
+	 * @param categoryId Target category ID.
+	 * @param revisionTimestamp
+	 * @return
+	 * @throws DAOException 
+	 */
+	public int insertCopiesByIds(Connection con, Map<Integer, Integer> newIdsBySourceId, Map<Integer, String> publicUidsByNewId, int categoryId, DateTime revisionTimestamp) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		
+		Row3<Integer, Integer, String>[] rows = newCopyRows(newIdsBySourceId.size());
+		int i = 0;
+		for (Map.Entry<Integer, Integer> entry : newIdsBySourceId.entrySet()) {
+			rows[i++] = DSL.row(entry.getKey(), entry.getValue(), publicUidsByNewId.get(entry.getValue()));
+		}
+		Table<Record3<Integer, Integer, String>> copies = DSL.values(rows).as("copies", "source_id", "new_id", "public_uid");
+		Field<Integer> sourceId = copies.field("source_id", Integer.class);
+		Field<Integer> newId = copies.field("new_id", Integer.class);
+		Field<String> publicUid = copies.field("public_uid", String.class);
+		
+		return dsl
+			.insertInto(TASKS,
+				TASKS.TASK_ID,
+				TASKS.CATEGORY_ID,
+				TASKS.REVISION_STATUS,
+				TASKS.REVISION_TIMESTAMP,
+				TASKS.REVISION_SEQUENCE,
+				TASKS.PUBLIC_UID,
+				TASKS.SUBJECT,
+				TASKS.DESCRIPTION,
+				TASKS.START_DATE,
+				TASKS.DUE_DATE,
+				TASKS.COMPLETED_DATE,
+				TASKS.IMPORTANCE,
+				TASKS.IS_PRIVATE,
+				TASKS.STATUS,
+				TASKS.COMPLETION_PERCENTAGE,
+				TASKS.REMINDER_DATE,
+				TASKS.REMINDED_ON
+			)
+			.select(
+				dsl.select(
+					newId,
+					DSL.val(categoryId),
+					DSL.val(EnumUtils.toSerializedName(Task.RevisionStatus.NEW)),
+					DSL.val(revisionTimestamp, TASKS.REVISION_TIMESTAMP.getDataType()),
+					DSL.val(0),
+					publicUid,
+					TASKS.SUBJECT,
+					TASKS.DESCRIPTION,
+					TASKS.START_DATE,
+					TASKS.DUE_DATE,
+					TASKS.COMPLETED_DATE,
+					TASKS.IMPORTANCE,
+					TASKS.IS_PRIVATE,
+					TASKS.STATUS,
+					TASKS.COMPLETION_PERCENTAGE,
+					TASKS.REMINDER_DATE,
+					TASKS.REMINDED_ON
+				)
+				.from(TASKS)
+				.join(copies).on(TASKS.TASK_ID.equal(sourceId))
+			)
+			.execute();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Row3<Integer, Integer, String>[] newCopyRows(int size) {
+		return new Row3[size];
+	}
+	
 	public int updateRevision(Connection con, int taskId, DateTime revisionTimestamp) throws DAOException {
 		DSLContext dsl = getDSL(con);
 		return dsl
@@ -299,6 +975,24 @@ public class TaskDAO extends BaseDAO {
 			.execute();
 	}
 	
+	public int deleteDeletedBefore(Connection con, DateTime revisionTimestamp, int limit) throws DAOException {
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.delete(TASKS)
+			.where(
+				TASKS.TASK_ID.in(
+					DSL.select(TASKS.TASK_ID)
+					.from(TASKS)
+					.where(
+						TASKS.REVISION_STATUS.equal(DSL.inline(EnumUtils.toSerializedName(Task.RevisionStatus.DELETED)))
+						.and(TASKS.REVISION_TIMESTAMP.lessThan(revisionTimestamp))
+					)
+					.limit(limit)
+				)
+			)
+			.execute();
+	}
+	
 	public int logicDeleteById(Connection con, int taskId, DateTime revisionTimestamp) throws DAOException {
 		final String DELETED = EnumUtils.toSerializedName(Task.RevisionStatus.DELETED);
 		DSLContext dsl = getDSL(con);
@@ -313,6 +1007,20 @@ public class TaskDAO extends BaseDAO {
 			.execute();
 	}
 	
+	public int logicDeleteByIds(Connection con, Collection<Integer> taskIds, DateTime revisionTimestamp) throws DAOException {
+		final String DELETED = EnumUtils.toSerializedName(Task.RevisionStatus.DELETED);
+		DSLContext dsl = getDSL(con);
+		return dsl
+			.update(TASKS)
+			.set(TASKS.REVISION_STATUS, DELETED)
+			.set(TASKS.REVISION_TIMESTAMP, revisionTimestamp)
+			.where(
+				TASKS.TASK_ID.in(taskIds)
+				.and(TASKS.REVISION_STATUS.notEqual(DELETED))
+			)
+			.execute();
+	}
+	
 	public int logicDeleteByCategoryId(Connection con, int categoryId, DateTime revisionTimestamp) throws DAOException {
 		final String DELETED = EnumUtils.toSerializedName(Task.RevisionStatus.DELETED);
 		DSLContext dsl = getDSL(con);
@@ -326,4 +1034,85 @@ public class TaskDAO extends BaseDAO {
 			)
 			.execute();
 	}
+	
+	/**
+	 * Escapes LIKE wildcards in user input, so that they match literally.
+	 */
+	private String escapeLike(String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+	
+	/**
+	 * Turns free user input into a prefix-matching tsquery expression
+	 * (eg. "foo ba" -> "foo:* & ba:*"). Returns null if no usable terms remain.
+	 */
+	private String toPrefixTsQuery(String query) {
+		if (StringUtils.isBlank(query)) return null;
+		StringBuilder sb = new StringBuilder();
+		for (String token : StringUtils.split(query)) {
+			final String term = token.replaceAll("[^\\p{L}\\p{N}_]", "").toLowerCase();
+			if (term.isEmpty()) continue;
+			if (sb.length() > 0) sb.append(" & ");
+			sb.append(term).append(":*");
+		}
+		return (sb.length() > 0) ? sb.toString() : null;
+	}
+	
+	/**
+	 * Returns the fields selected by list queries, carrying a truncated 
+	 * description (computed DB side) in place of the full one.
+	 */
+	private Field<?>[] listFields() {
+		return new Field<?>[]{
+			TASKS.TASK_ID,
+			TASKS.CATEGORY_ID,
+			TASKS.PUBLIC_UID,
+			TASKS.SUBJECT,
+			DSL.substring(TASKS.DESCRIPTION, 1, DESCRIPTION_PREVIEW_LENGTH).as(TASKS.DESCRIPTION.getName()),
+			TASKS.START_DATE,
+			TASKS.DUE_DATE,
+			TASKS.IMPORTANCE,
+			TASKS.IS_PRIVATE,
+			TASKS.STATUS,
+			TASKS.COMPLETION_PERCENTAGE,
+			TASKS.REMINDER_DATE
+		};
+	}
+	
+	/**
+	 * Selects active tasks having a reminder and matching the passed 
+	 * condition, along with the owner of their category.
+	 */
+	private SelectConditionStep<Record> selectReminders(DSLContext dsl, Condition condition) {
+		return dsl
+			.select(
+				TASKS.TASK_ID,
+				TASKS.CATEGORY_ID,
+				TASKS.SUBJECT,
+				TASKS.REMINDER_DATE,
+				TASKS.PUBLIC_UID
+			)
+			.select(
+				CATEGORIES.DOMAIN_ID.as("category_domain_id"),
+				CATEGORIES.USER_ID.as("category_user_id")
+			)
+			.from(TASKS)
+			.join(CATEGORIES).on(TASKS.CATEGORY_ID.equal(CATEGORIES.CATEGORY_ID))
+			.where(
+				TASKS.REMINDER_DATE.isNotNull()
+				.and(activeCondition())
+				.and(condition)
+			);
+	}
+	
+	/**
+	 * Matches tasks not deleted, listing statuses explicitly so that partial 
+	 * indexes on active tasks can be used. Shared with other DAOs joining tasks.
+	 */
+	static Condition activeCondition() {
+		return TASKS.REVISION_STATUS.in(
+			DSL.inline(EnumUtils.toSerializedName(Task.RevisionStatus.NEW)),
+			DSL.inline(EnumUtils.toSerializedName(Task.RevisionStatus.MODIFIED))
+		);
+	}
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.dal;
+
+import com.sonicle.commons.db.DbUtils;
+import com.sonicle.webtop.core.app.WT;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * A unit of work bound to the current thread (typically a servlet action), 
+ * allowing many manager calls to share a single connection and transaction.
+ * The connection is opened lazily on first join; joiners receive a proxy 
+ * on which close/commit/setAutoCommit are no-ops, while rollback marks the 
+ * whole unit as rollback-only. Units can be nested: only the outermost one 
+ * actually commits.
+ * <pre>
+ * UnitOfWork uow = UnitOfWork.begin(SERVICE_ID);
+ * try {
+ *     ...manager calls...
+ *     uow.commit();
+ * } finally {
+ *     uow.end();
+ * }
+ * </pre>
+ */
+public class UnitOfWork {
+	private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+	private final String serviceId;
+	private final UnitOfWork outer;
+	private Connection connection = null;
+	private Connection proxy = null;
+	private boolean rollbackOnly = false;
+	private int depth = 1;
+	private final ArrayList<Runnable> afterCommitActions = new ArrayList<>();
+	
+	private UnitOfWork(String serviceId, UnitOfWork outer) {
+		this.serviceId = serviceId;
+		this.outer = outer;
+	}
+	
+	/**
+	 * Begins a unit of work on the current thread, joining the running one (if any).
+	 * A unit running for another service is suspended until this one ends.
+	 * @param serviceId The service whose default datasource will be used.
+	 * @return The unit of work.
+	 */
+	public static UnitOfWork begin(String serviceId) {
+		UnitOfWork uow = CURRENT.get();
+		if ((uow != null) && uow.serviceId.equals(serviceId)) {
+			uow.depth++;
+			return uow;
+		}
+		uow = new UnitOfWork(serviceId, uow);
+		CURRENT.set(uow);
+		return uow;
+	}
+	
+	/**
+	 * Returns the connection of the unit of work running on the current 
+	 * thread for the specified service.
+	 * @param serviceId The service ID.
+	 * @return A non-closeable connection or null if there is no unit of work.
+	 * @throws SQLException 
+	 */
+	public static Connection joinCurrent(String serviceId) throws SQLException {
+		UnitOfWork uow = CURRENT.get();
+		if ((uow == null) || !uow.serviceId.equals(serviceId)) return null;
+		return uow.getConnection();
+	}
+	
+	/**
+	 * Returns the connection of the unit of work running on the current 
+	 * thread for the specified service, only if the unit already opened it 
+	 * (ie. some work has been done through it). Pure reads can this way 
+	 * use other datasources until the unit actually writes something.
+	 * @param serviceId The service ID.
+	 * @return A non-closeable connection or null if there is no such connection.
+	 */
+	public static Connection joinCurrentIfOpen(String serviceId) {
+		UnitOfWork uow = CURRENT.get();
+		if ((uow == null) || !uow.serviceId.equals(serviceId) || (uow.connection == null)) return null;
+		return uow.proxy;
+	}
+	
+	/**
+	 * Defers an action until the unit of work running on the current thread 
+	 * for the specified service is actually committed: if it ends without 
+	 * committing, the action is discarded.
+	 * @param serviceId The service ID.
+	 * @param action The action to run.
+	 * @return False if there is no unit of work (the action is not taken).
+	 */
+	public static boolean runAfterCommit(String serviceId, Runnable action) {
+		UnitOfWork uow = CURRENT.get();
+		if ((uow == null) || !uow.serviceId.equals(serviceId)) return false;
+		uow.afterCommitActions.add(action);
+		return true;
+	}
+	
+	/**
+	 * Commits the work done so far. Within nested units this is a no-op, 
+	 * the outermost one is in charge of committing.
+	 * @throws SQLException If the unit has been marked as rollback-only or commit fails.
+	 */
+	public void commit() throws SQLException {
+		if (depth > 1) return;
+		if (connection != null) {
+			if (rollbackOnly) throw new SQLException("Unit of work marked as rollback-only");
+			connection.commit();
+		}
+		ArrayList<Runnable> actions = new ArrayList<>(afterCommitActions);
+		afterCommitActions.clear();
+		for (Runnable action : actions) {
+			action.run();
+		}
+	}
+	
+	/**
+	 * Ends this unit of work, rolling back any uncommitted work and 
+	 * releasing the connection. Must be called in a finally block; 
+	 * calling it again on an ended unit does nothing.
+	 */
+	public void end() {
+		if (depth <= 0) return;
+		if (--depth > 0) return;
+		if (outer != null) {
+			CURRENT.set(outer);
+		} else {
+			CURRENT.remove();
+		}
+		afterCommitActions.clear();
+		if (connection == null) return;
+		DbUtils.rollbackQuietly(connection);
+		DbUtils.closeQuietly(connection);
+		connection = null;
+		proxy = null;
+	}
+	
+	private Connection getConnection() throws SQLException {
+		if (connection == null) {
+			connection = WT.getConnection(serviceId, false);
+			proxy = (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new JoinedConnectionHandler());
+		}
+		return proxy;
+	}
+	
+	private class JoinedConnectionHandler implements InvocationHandler {
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch(method.getName()) {
+				case "close":
+				case "commit":
+				case "setAutoCommit":
+					return null;
+				case "rollback":
+					if ((args == null) || (args.length == 0)) {
+						rollbackOnly = true;
+						return null;
+					}
+					break;
+				case "isClosed":
+					return connection == null;
+			}
+			try {
+				return method.invoke(connection, args);
+			} catch(InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
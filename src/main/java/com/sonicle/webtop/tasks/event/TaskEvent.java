@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.event;
+
+import com.sonicle.webtop.core.sdk.UserProfileId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Base class of events published on the {@link TaskEventBus} once a change 
+ * has been committed. Events are immutable and carry IDs only: subscribers 
+ * needing data have to fetch it again.
+ */
+public abstract class TaskEvent {
+	private final UserProfileId profileId;
+	private final int categoryId;
+	private final Set<Integer> taskIds;
+	private final DateTime timestamp;
+	
+	protected TaskEvent(UserProfileId profileId, int categoryId, Collection<Integer> taskIds) {
+		this.profileId = profileId;
+		this.categoryId = categoryId;
+		this.taskIds = (taskIds != null) ? Collections.unmodifiableSet(new LinkedHashSet<>(taskIds)) : null;
+		this.timestamp = DateTime.now(DateTimeZone.UTC);
+	}
+	
+	/**
+	 * Returns the profile of the manager that made the change.
+	 * @return 
+	 */
+	public UserProfileId getProfileId() {
+		return profileId;
+	}
+	
+	public int getCategoryId() {
+		return categoryId;
+	}
+	
+	/**
+	 * Returns the IDs of involved tasks.
+	 * @return The IDs, or null if any task of the category may be involved.
+	 */
+	public Set<Integer> getTaskIds() {
+		return taskIds;
+	}
+	
+	public boolean isCategoryWide() {
+		return taskIds == null;
+	}
+	
+	public DateTime getTimestamp() {
+		return timestamp;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + categoryId + ", " + ((taskIds != null) ? taskIds : "*") + "]";
+	}
+}
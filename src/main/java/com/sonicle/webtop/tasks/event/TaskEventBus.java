@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.event;
+
+import com.sonicle.webtop.core.app.WT;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+
+/**
+ * In-process bus delivering {@link TaskEvent}s to subscribers asynchronously.
+ * Each subscriber has its own bounded queue, drained by a small shared pool 
+ * of dispatcher threads: publishing never blocks, so a slow consumer can 
+ * only delay (or, when its queue is full, lose) its own events, while the 
+ * write path and other subscribers go on unaffected. Lost events are 
+ * reported through {@link TaskEventListener#onEventsDropped(long)}.
+ */
+public class TaskEventBus {
+	private static final Logger logger = WT.getLogger(TaskEventBus.class);
+	private static final TaskEventBus INSTANCE = new TaskEventBus();
+	private static final int DISPATCHER_THREADS = 2;
+	private static final int DRAIN_BATCH_SIZE = 100;
+	
+	private final CopyOnWriteArrayList<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+	private final ExecutorService dispatcher = Executors.newFixedThreadPool(DISPATCHER_THREADS, new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger(0);
+		
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "webtop-tasks-events-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+	
+	public static TaskEventBus getInstance() {
+		return INSTANCE;
+	}
+	
+	private TaskEventBus() {}
+	
+	/**
+	 * Registers a listener for events of the specified type (subclasses included).
+	 * @param <E> The event type.
+	 * @param name A name identifying the subscriber in logs.
+	 * @param eventType The event type.
+	 * @param listener The listener.
+	 * @param queueCapacity Max number of pending events for this subscriber.
+	 * @return The subscription, to be passed to {@link #unsubscribe}.
+	 */
+	public <E extends TaskEvent> Subscription<E> subscribe(String name, Class<E> eventType, TaskEventListener<? super E> listener, int queueCapacity) {
+		Subscription<E> subscription = new Subscription<>(name, eventType, listener, queueCapacity);
+		subscriptions.add(subscription);
+		return subscription;
+	}
+	
+	/**
+	 * Removes a subscription: pending events are discarded.
+	 * @param subscription The subscription.
+	 */
+	public void unsubscribe(Subscription<?> subscription) {
+		if (subscription == null) return;
+		subscription.active = false;
+		subscriptions.remove(subscription);
+		subscription.queue.clear();
+	}
+	
+	public boolean hasSubscribers() {
+		return !subscriptions.isEmpty();
+	}
+	
+	/**
+	 * Enqueues an event for every interested subscriber, without blocking.
+	 * Must be called only after the change has been committed.
+	 * @param event The event.
+	 */
+	public void publish(TaskEvent event) {
+		for (Subscription<?> subscription : subscriptions) {
+			subscription.offer(event);
+		}
+	}
+	
+	public final class Subscription<E extends TaskEvent> implements Runnable {
+		private final String name;
+		private final Class<E> eventType;
+		private final TaskEventListener<? super E> listener;
+		private final ArrayBlockingQueue<E> queue;
+		private final AtomicBoolean scheduled = new AtomicBoolean(false);
+		private final AtomicLong dropped = new AtomicLong(0);
+		private volatile boolean active = true;
+		
+		private Subscription(String name, Class<E> eventType, TaskEventListener<? super E> listener, int queueCapacity) {
+			this.name = name;
+			this.eventType = eventType;
+			this.listener = listener;
+			this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		}
+		
+		public String getName() {
+			return name;
+		}
+		
+		private void offer(TaskEvent event) {
+			if (!active || !eventType.isInstance(event)) return;
+			if (!queue.offer(eventType.cast(event))) {
+				if (dropped.getAndIncrement() == 0) logger.warn("Subscriber [{}] is lagging behind, events are being dropped", name);
+			}
+			schedule();
+		}
+		
+		private void schedule() {
+			if (active && scheduled.compareAndSet(false, true)) dispatcher.execute(this);
+		}
+		
+		@Override
+		public void run() {
+			try {
+				// Drain a limited batch at a time, giving other subscribers a chance
+				for (int i = 0; active && (i < DRAIN_BATCH_SIZE); i++) {
+					E event = queue.poll();
+					if (event == null) break;
+					try {
+						listener.onEvent(event);
+					} catch(RuntimeException ex) {
+						logger.error("Subscriber [{}] failed handling {}", name, event, ex);
+					}
+				}
+				long count = dropped.getAndSet(0);
+				if (active && (count > 0)) {
+					try {
+						listener.onEventsDropped(count);
+					} catch(RuntimeException ex) {
+						logger.error("Subscriber [{}] failed handling dropped events", name, ex);
+					}
+				}
+			} finally {
+				scheduled.set(false);
+				if (!queue.isEmpty() || (dropped.get() > 0)) schedule();
+			}
+		}
+	}
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.io;
+
+import com.sonicle.commons.EnumUtils;
+import com.sonicle.webtop.tasks.model.Task;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Reads iCalendar (RFC 5545) VTODO components incrementally from a stream:
+ * each call to {@link #next()} parses the next component only, so files of 
+ * any size can be processed in constant memory. Other components (VEVENT, 
+ * VTIMEZONE, etc.) are skipped; malformed VTODOs are skipped too and 
+ * reported through {@link #getErrors()}.
+ */
+public class VTodoReader {
+	private static final DateTimeFormatter DATETIME_FMT = DateTimeFormat.forPattern("yyyyMMdd'T'HHmmss");
+	private static final DateTimeFormatter DATE_FMT = DateTimeFormat.forPattern("yyyyMMdd");
+	private final BufferedReader reader;
+	private final DateTimeZone defaultTz;
+	private final List<String> errors = new ArrayList<>();
+	private String pendingLine = null;
+	private int lineNumber = 0;
+	
+	public VTodoReader(InputStream is, DateTimeZone defaultTz) {
+		this.reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+		this.defaultTz = defaultTz;
+	}
+	
+	/**
+	 * Returns parsing errors collected so far (one message per skipped item).
+	 * @return 
+	 */
+	public List<String> getErrors() {
+		return errors;
+	}
+	
+	/**
+	 * Parses the next VTODO component.
+	 * @return The parsed task or null if the end of stream has been reached.
+	 * @throws IOException 
+	 */
+	public Task next() throws IOException {
+		String line;
+		while ((line = readUnfoldedLine()) != null) {
+			if (!"BEGIN:VTODO".equalsIgnoreCase(line)) continue;
+			
+			final int startLine = lineNumber;
+			Task task = new Task();
+			String error = null;
+			while ((line = readUnfoldedLine()) != null) {
+				if ("END:VTODO".equalsIgnoreCase(line)) break;
+				if (error != null) continue;
+				try {
+					parseProperty(task, line);
+				} catch(IllegalArgumentException ex) {
+					error = ex.getMessage();
+				}
+			}
+			if ((error == null) && StringUtils.isBlank(task.getPublicUid())) error = "Missing UID";
+			if ((error == null) && StringUtils.isBlank(task.getSubject())) error = "Missing SUMMARY";
+			if (error != null) {
+				errors.add("VTODO at line " + startLine + ": " + error);
+				continue;
+			}
+			return task;
+		}
+		return null;
+	}
+	
+	private void parseProperty(Task task, String line) {
+		final int colon = indexOfValueSeparator(line);
+		if (colon == -1) throw new IllegalArgumentException("Invalid content line [" + line + "]");
+		final String[] nameAndParams = StringUtils.split(line.substring(0, colon), ";");
+		final String name = nameAndParams[0].toUpperCase();
+		final String value = line.substring(colon + 1);
+		final HashMap<String, String> params = new HashMap<>();
+		for (int i = 1; i < nameAndParams.length; i++) {
+			final String[] tokens = StringUtils.split(nameAndParams[i], "=", 2);
+			if (tokens.length == 2) params.put(tokens[0].toUpperCase(), StringUtils.strip(tokens[1], "\""));
+		}
+		
+		switch(name) {
+			case "UID":
+				task.setPublicUid(unescape(value));
+				break;
+			case "SUMMARY":
+				task.setSubject(StringUtils.left(unescape(value), 100));
+				break;
+			case "DESCRIPTION":
+				task.setDescription(unescape(value));
+				break;
+			case "DTSTART":
+				task.setStartDate(parseDate(value, params));
+				break;
+			case "DUE":
+				task.setDueDate(parseDate(value, params));
+				break;
+			case "COMPLETED":
+				task.setCompletedDate(parseDate(value, params));
+				break;
+			case "PRIORITY":
+				task.setImportance(toImportance(parseInt(name, value)));
+				break;
+			case "PERCENT-COMPLETE":
+				task.setCompletionPercentage((short)Math.min(Math.max(parseInt(name, value), 0), 100));
+				break;
+			case "STATUS":
+				task.setStatus(toStatus(value));
+				break;
+			case "CLASS":
+				task.setIsPrivate(!"PUBLIC".equalsIgnoreCase(value));
+				break;
+		}
+	}
+	
+	private DateTime parseDate(String value, HashMap<String, String> params) {
+		try {
+			if ("DATE".equalsIgnoreCase(params.get("VALUE")) || (value.length() == 8)) {
+				return DATE_FMT.withZone(defaultTz).parseDateTime(value);
+			} else if (value.endsWith("Z")) {
+				return DATETIME_FMT.withZoneUTC().parseDateTime(value.substring(0, value.length() - 1));
+			} else {
+				DateTimeZone tz = defaultTz;
+				if (params.containsKey("TZID")) {
+					try {
+						tz = DateTimeZone.forID(params.get("TZID"));
+					} catch(IllegalArgumentException ex) { /* Unknown zone: keep default */ }
+				}
+				return DATETIME_FMT.withZone(tz).parseDateTime(value);
+			}
+		} catch(IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Invalid date value [" + value + "]");
+		}
+	}
+	
+	private int parseInt(String name, String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		} catch(NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid " + name + " value [" + value + "]");
+		}
+	}
+	
+	private short toImportance(int priority) {
+		// Importance: 0 = low, 1 = normal, 2 = high
+		if ((priority >= 1) && (priority <= 4)) return 2;
+		if (priority >= 6) return 0;
+		return 1;
+	}
+	
+	private Task.Status toStatus(String value) {
+		if ("COMPLETED".equalsIgnoreCase(value)) return Task.Status.COMPLETED;
+		if ("IN-PROCESS".equalsIgnoreCase(value)) return EnumUtils.forSerializedName("inprogress", Task.Status.class);
+		return Task.Status.NOT_STARTED;
+	}
+	
+	private int indexOfValueSeparator(String line) {
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			final char c = line.charAt(i);
+			if (c == '"') quoted = !quoted;
+			if ((c == ':') && !quoted) return i;
+		}
+		return -1;
+	}
+	
+	private String unescape(String value) {
+		StringBuilder sb = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if ((c == '\\') && (i + 1 < value.length())) {
+				final char n = value.charAt(++i);
+				sb.append(((n == 'n') || (n == 'N')) ? '\n' : n);
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Reads a logical content line, joining folded (continuation) lines.
+	 */
+	private String readUnfoldedLine() throws IOException {
+		String line = (pendingLine != null) ? pendingLine : readPhysicalLine();
+		pendingLine = null;
+		if (line == null) return null;
+		
+		StringBuilder sb = new StringBuilder(line);
+		String next;
+		while ((next = readPhysicalLine()) != null) {
+			if (!next.isEmpty() && ((next.charAt(0) == ' ') || (next.charAt(0) == '\t'))) {
+				sb.append(next, 1, next.length());
+			} else {
+				pendingLine = next;
+				break;
+			}
+		}
+		return sb.toString();
+	}
+	
+	private String readPhysicalLine() throws IOException {
+		String line = reader.readLine();
+		if (line != null) lineNumber++;
+		return line;
+	}
+}
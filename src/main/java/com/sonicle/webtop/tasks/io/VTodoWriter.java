@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017 Sonicle S.r.l.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Affero General Public License version 3 as published by
+ * the Free Software Foundation with the addition of the following permission
+ * added to Section 15 as permitted in Section 7(a): FOR ANY PART OF THE COVERED
+ * WORK IN WHICH THE COPYRIGHT IS OWNED BY SONICLE, SONICLE DISCLAIMS THE
+ * WARRANTY OF NON INFRINGEMENT OF THIRD PARTY RIGHTS.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses or write to
+ * the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301 USA.
+ *
+ * You can contact Sonicle S.r.l. at email address sonicle[at]sonicle[dot]com
+ *
+ * The interactive user interfaces in modified source and object code versions
+ * of this program must display Appropriate Legal Notices, as required under
+ * Section 5 of the GNU Affero General Public License version 3.
+ *
+ * In accordance with Section 7(b) of the GNU Affero General Public License
+ * version 3, these Appropriate Legal Notices must retain the display of the
+ * Sonicle logo and Sonicle copyright notice. If the display of the logo is not
+ * reasonably feasible for technical reasons, the Appropriate Legal Notices must
+ * display the words "Copyright (C) 2017 Sonicle S.r.l.".
+ */
+package com.sonicle.webtop.tasks.io;
+
+import com.sonicle.commons.EnumUtils;
+import com.sonicle.webtop.tasks.model.Task;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Writes tasks as iCalendar (RFC 5545) VTODO components, one at a time, 
+ * straight to the underlying stream: nothing is buffered apart from the 
+ * component being written, so memory usage does not depend on the number 
+ * of exported tasks.
+ */
+public class VTodoWriter {
+	private static final String CRLF = "\r\n";
+	private static final int MAX_LINE_OCTETS = 75;
+	private static final DateTimeFormatter UTC_FMT = DateTimeFormat.forPattern("yyyyMMdd'T'HHmmss'Z'").withZone(DateTimeZone.UTC);
+	private final Writer writer;
+	
+	public VTodoWriter(OutputStream os) {
+		this.writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+	}
+	
+	public void writeHeader(String prodId) throws IOException {
+		writeLine("BEGIN:VCALENDAR");
+		writeLine("VERSION:2.0");
+		writeLine("PRODID:" + prodId);
+	}
+	
+	public void writeTask(Task task, String categoryName) throws IOException {
+		writeLine("BEGIN:VTODO");
+		writeLine("UID:" + escape(task.getPublicUid()));
+		writeDate("DTSTAMP", DateTime.now());
+		writeDate("LAST-MODIFIED", task.getRevisionTimestamp());
+		writeText("SUMMARY", task.getSubject());
+		writeText("DESCRIPTION", task.getDescription());
+		writeDate("DTSTART", task.getStartDate());
+		writeDate("DUE", task.getDueDate());
+		writeDate("COMPLETED", task.getCompletedDate());
+		if (task.getImportance() != null) writeLine("PRIORITY:" + toPriority(task.getImportance()));
+		if (task.getStatus() != null) writeLine("STATUS:" + toStatus(task.getStatus()));
+		if (task.getCompletionPercentage() != null) writeLine("PERCENT-COMPLETE:" + task.getCompletionPercentage());
+		writeLine("CLASS:" + (Boolean.TRUE.equals(task.getIsPrivate()) ? "PRIVATE" : "PUBLIC"));
+		writeText("CATEGORIES", categoryName);
+		writeLine("END:VTODO");
+	}
+	
+	public void writeFooter() throws IOException {
+		writeLine("END:VCALENDAR");
+		writer.flush();
+	}
+	
+	public void flush() throws IOException {
+		writer.flush();
+	}
+	
+	private void writeText(String name, String value) throws IOException {
+		if (StringUtils.isEmpty(value)) return;
+		writeLine(name + ":" + escape(value));
+	}
+	
+	private void writeDate(String name, DateTime value) throws IOException {
+		if (value == null) return;
+		writeLine(name + ":" + UTC_FMT.print(value));
+	}
+	
+	/**
+	 * Writes a content line, folding it at 75 octets as required by RFC 5545.
+	 */
+	private void writeLine(String line) throws IOException {
+		int octets = 0;
+		for (int i = 0; i < line.length(); i++) {
+			final char c = line.charAt(i);
+			final int len = (c < 0x80) ? 1 : (c < 0x800) ? 2 : Character.isHighSurrogate(c) ? 4 : Character.isLowSurrogate(c) ? 0 : 3;
+			if (octets + len > MAX_LINE_OCTETS) {
+				writer.write(CRLF);
+				writer.write(' ');
+				octets = 1;
+			}
+			writer.write(c);
+			octets += len;
+		}
+		writer.write(CRLF);
+	}
+	
+	private String escape(String value) {
+		if (value == null) return "";
+		return value
+			.replace("\\", "\\\\")
+			.replace(";", "\\;")
+			.replace(",", "\\,")
+			.replace("\r\n", "\\n")
+			.replace("\n", "\\n")
+			.replace("\r", "\\n");
+	}
+	
+	private int toPriority(short importance) {
+		// Importance: 0 = low, 1 = normal, 2 = high
+		if (importance <= 0) return 9;
+		if (importance == 1) return 5;
+		return 1;
+	}
+	
+	private String toStatus(Task.Status status) {
+		if (Task.Status.COMPLETED.equals(status)) return "COMPLETED";
+		if ("inprogress".equals(EnumUtils.toSerializedName(status))) return "IN-PROCESS";
+		return "NEEDS-ACTION";
+	}
+}
@@ -30,6 +30,11 @@ public class Keys {
 	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.CategoriesRecord> CATEGORIES_PKEY = UniqueKeys0.CATEGORIES_PKEY;
 	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.CategoryPropsRecord> CATEGORY_PROPS_PKEY = UniqueKeys0.CATEGORY_PROPS_PKEY;
 	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.TasksRecord> TASKS_PKEY = UniqueKeys0.TASKS_PKEY;
+	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.RecurrencesRecord> RECURRENCES_PKEY = UniqueKeys0.RECURRENCES_PKEY;
+	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.HierarchyRecord> HIERARCHY_PKEY = UniqueKeys0.HIERARCHY_PKEY;
+	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.TagsRecord> TAGS_PKEY = UniqueKeys0.TAGS_PKEY;
+	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.AttachmentsRecord> ATTACHMENTS_PKEY = UniqueKeys0.ATTACHMENTS_PKEY;
+	public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.MovedTasksRecord> MOVED_TASKS_PKEY = UniqueKeys0.MOVED_TASKS_PKEY;
 
 	// -------------------------------------------------------------------------
 	// FOREIGN KEY definitions
@@ -48,5 +53,10 @@ public class Keys {
 		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.CategoriesRecord> CATEGORIES_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.Categories.CATEGORIES, com.sonicle.webtop.tasks.jooq.tables.Categories.CATEGORIES.CATEGORY_ID);
 		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.CategoryPropsRecord> CATEGORY_PROPS_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.CategoryProps.CATEGORY_PROPS, com.sonicle.webtop.tasks.jooq.tables.CategoryProps.CATEGORY_PROPS.DOMAIN_ID, com.sonicle.webtop.tasks.jooq.tables.CategoryProps.CATEGORY_PROPS.USER_ID, com.sonicle.webtop.tasks.jooq.tables.CategoryProps.CATEGORY_PROPS.CATEGORY_ID);
 		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.TasksRecord> TASKS_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.Tasks.TASKS, com.sonicle.webtop.tasks.jooq.tables.Tasks.TASKS.TASK_ID);
+		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.RecurrencesRecord> RECURRENCES_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.Recurrences.RECURRENCES, com.sonicle.webtop.tasks.jooq.tables.Recurrences.RECURRENCES.TASK_ID);
+		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.HierarchyRecord> HIERARCHY_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.Hierarchy.HIERARCHY, com.sonicle.webtop.tasks.jooq.tables.Hierarchy.HIERARCHY.ANCESTOR_ID, com.sonicle.webtop.tasks.jooq.tables.Hierarchy.HIERARCHY.DESCENDANT_ID);
+		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.TagsRecord> TAGS_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.Tags.TAGS, com.sonicle.webtop.tasks.jooq.tables.Tags.TAGS.TASK_ID, com.sonicle.webtop.tasks.jooq.tables.Tags.TAGS.TAG);
+		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.AttachmentsRecord> ATTACHMENTS_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.Attachments.ATTACHMENTS, com.sonicle.webtop.tasks.jooq.tables.Attachments.ATTACHMENTS.ATTACHMENT_ID);
+		public static final org.jooq.UniqueKey<com.sonicle.webtop.tasks.jooq.tables.records.MovedTasksRecord> MOVED_TASKS_PKEY = createUniqueKey(com.sonicle.webtop.tasks.jooq.tables.MovedTasks.MOVED_TASKS, com.sonicle.webtop.tasks.jooq.tables.MovedTasks.MOVED_TASKS.TASK_ID, com.sonicle.webtop.tasks.jooq.tables.MovedTasks.MOVED_TASKS.CATEGORY_ID);
 	}
 }
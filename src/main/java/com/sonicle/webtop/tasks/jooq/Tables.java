@@ -30,4 +30,29 @@ public class Tables {
 	 * The table tasks.tasks
 	 */
 	public static final com.sonicle.webtop.tasks.jooq.tables.Tasks TASKS = com.sonicle.webtop.tasks.jooq.tables.Tasks.TASKS;
+
+	/**
+	 * The table tasks.recurrences
+	 */
+	public static final com.sonicle.webtop.tasks.jooq.tables.Recurrences RECURRENCES = com.sonicle.webtop.tasks.jooq.tables.Recurrences.RECURRENCES;
+
+	/**
+	 * The table tasks.hierarchy
+	 */
+	public static final com.sonicle.webtop.tasks.jooq.tables.Hierarchy HIERARCHY = com.sonicle.webtop.tasks.jooq.tables.Hierarchy.HIERARCHY;
+
+	/**
+	 * The table tasks.tags
+	 */
+	public static final com.sonicle.webtop.tasks.jooq.tables.Tags TAGS = com.sonicle.webtop.tasks.jooq.tables.Tags.TAGS;
+
+	/**
+	 * The table tasks.attachments
+	 */
+	public static final com.sonicle.webtop.tasks.jooq.tables.Attachments ATTACHMENTS = com.sonicle.webtop.tasks.jooq.tables.Attachments.ATTACHMENTS;
+
+	/**
+	 * The table tasks.moved_tasks
+	 */
+	public static final com.sonicle.webtop.tasks.jooq.tables.MovedTasks MOVED_TASKS = com.sonicle.webtop.tasks.jooq.tables.MovedTasks.MOVED_TASKS;
 }
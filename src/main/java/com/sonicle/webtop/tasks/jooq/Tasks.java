@@ -54,6 +54,11 @@ public class Tasks extends org.jooq.impl.SchemaImpl {
 		return java.util.Arrays.<org.jooq.Table<?>>asList(
 			com.sonicle.webtop.tasks.jooq.tables.Categories.CATEGORIES,
 			com.sonicle.webtop.tasks.jooq.tables.CategoryProps.CATEGORY_PROPS,
-			com.sonicle.webtop.tasks.jooq.tables.Tasks.TASKS);
+			com.sonicle.webtop.tasks.jooq.tables.Tasks.TASKS,
+			com.sonicle.webtop.tasks.jooq.tables.Recurrences.RECURRENCES,
+			com.sonicle.webtop.tasks.jooq.tables.Hierarchy.HIERARCHY,
+			com.sonicle.webtop.tasks.jooq.tables.Tags.TAGS,
+			com.sonicle.webtop.tasks.jooq.tables.Attachments.ATTACHMENTS,
+			com.sonicle.webtop.tasks.jooq.tables.MovedTasks.MOVED_TASKS);
 	}
 }
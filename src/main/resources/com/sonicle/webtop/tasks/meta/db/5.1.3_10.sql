@@ -0,0 +1,23 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Table structure for moved_tasks
+-- ----------------------------
+CREATE TABLE "tasks"."moved_tasks" (
+"task_id" int4 NOT NULL,
+"category_id" int4 NOT NULL,
+"revision_timestamp" timestamptz(6) NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Indexes structure for table moved_tasks
+-- ----------------------------
+CREATE INDEX "moved_tasks_ak1" ON "tasks"."moved_tasks" USING btree ("category_id", "revision_timestamp", "task_id");
+
+-- ----------------------------
+-- Primary Key structure for table moved_tasks
+-- ----------------------------
+ALTER TABLE "tasks"."moved_tasks" ADD PRIMARY KEY ("task_id", "category_id");
@@ -0,0 +1,6 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Partial index on active (not deleted) rows of table tasks, ordered by subject across categories
+-- ----------------------------
+CREATE INDEX "tasks_ak9" ON "tasks"."tasks" USING btree ("subject", "task_id") WHERE "revision_status" IN ('N', 'M');
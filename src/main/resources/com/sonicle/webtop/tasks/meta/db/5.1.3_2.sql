@@ -0,0 +1,30 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Extension required by trigram indexes
+-- ----------------------------
+CREATE EXTENSION IF NOT EXISTS "pg_trgm";
+
+-- ----------------------------
+-- Full-text search column for table tasks
+-- ----------------------------
+ALTER TABLE "tasks"."tasks" ADD COLUMN "search_vector" tsvector;
+
+-- ----------------------------
+-- Triggers structure for table tasks
+-- ----------------------------
+DROP TRIGGER IF EXISTS "search_vector_trg" ON "tasks"."tasks";
+CREATE TRIGGER "search_vector_trg" BEFORE INSERT OR UPDATE OF "subject", "description" ON "tasks"."tasks"
+FOR EACH ROW EXECUTE PROCEDURE tsvector_update_trigger("search_vector", 'pg_catalog.simple', "subject", "description");
+
+-- ----------------------------
+-- Populate search column for existing rows
+-- ----------------------------
+UPDATE "tasks"."tasks" SET "search_vector" = to_tsvector('pg_catalog.simple', coalesce("subject", '') || ' ' || coalesce("description", ''));
+
+-- ----------------------------
+-- Indexes structure for table tasks
+-- ----------------------------
+CREATE INDEX "tasks_ak2" ON "tasks"."tasks" USING gin ("search_vector");
+CREATE INDEX "tasks_ak3" ON "tasks"."tasks" USING gin ("subject" gin_trgm_ops);
+CREATE INDEX "tasks_ak4" ON "tasks"."tasks" USING gin ("description" gin_trgm_ops);
@@ -0,0 +1,7 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Sequences reserve blocks of IDs (see SequenceIdAllocator)
+-- ----------------------------
+ALTER SEQUENCE "tasks"."seq_categories" INCREMENT BY 10;
+ALTER SEQUENCE "tasks"."seq_tasks" INCREMENT BY 50;
@@ -0,0 +1,8 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Partial indexes on active (not deleted) rows of table tasks
+-- ----------------------------
+CREATE INDEX "tasks_ak5" ON "tasks"."tasks" USING btree ("category_id", "subject", "task_id") WHERE "revision_status" IN ('N', 'M');
+CREATE INDEX "tasks_ak6" ON "tasks"."tasks" USING btree ("category_id", "due_date") WHERE "revision_status" IN ('N', 'M') AND "due_date" IS NOT NULL;
+CREATE INDEX "tasks_ak7" ON "tasks"."tasks" USING btree ("reminder_date") WHERE "revision_status" IN ('N', 'M') AND "reminder_date" IS NOT NULL;
@@ -0,0 +1,6 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Partial index on deleted rows of table tasks (tombstone compaction)
+-- ----------------------------
+CREATE INDEX "tasks_ak8" ON "tasks"."tasks" USING btree ("revision_timestamp") WHERE "revision_status" = 'D';
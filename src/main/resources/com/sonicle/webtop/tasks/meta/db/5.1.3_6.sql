@@ -0,0 +1,19 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Table structure for recurrences
+-- ----------------------------
+CREATE TABLE "tasks"."recurrences" (
+"task_id" int4 NOT NULL,
+"rule" varchar(255) NOT NULL,
+"start_date" timestamptz(6) NOT NULL,
+"occurrence" int4 DEFAULT 0 NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Primary Key structure for table recurrences
+-- ----------------------------
+ALTER TABLE "tasks"."recurrences" ADD PRIMARY KEY ("task_id");
@@ -0,0 +1,23 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Table structure for hierarchy
+-- ----------------------------
+CREATE TABLE "tasks"."hierarchy" (
+"ancestor_id" int4 NOT NULL,
+"descendant_id" int4 NOT NULL,
+"depth" int4 NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Indexes structure for table hierarchy
+-- ----------------------------
+CREATE INDEX "hierarchy_ak1" ON "tasks"."hierarchy" USING btree ("descendant_id", "depth");
+
+-- ----------------------------
+-- Primary Key structure for table hierarchy
+-- ----------------------------
+ALTER TABLE "tasks"."hierarchy" ADD PRIMARY KEY ("ancestor_id", "descendant_id");
@@ -0,0 +1,22 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Table structure for tags
+-- ----------------------------
+CREATE TABLE "tasks"."tags" (
+"task_id" int4 NOT NULL,
+"tag" varchar(50) NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Indexes structure for table tags
+-- ----------------------------
+CREATE INDEX "tags_ak1" ON "tasks"."tags" USING btree ("tag");
+
+-- ----------------------------
+-- Primary Key structure for table tags
+-- ----------------------------
+ALTER TABLE "tasks"."tags" ADD PRIMARY KEY ("task_id", "tag");
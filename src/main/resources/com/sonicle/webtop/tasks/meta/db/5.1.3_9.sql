@@ -0,0 +1,26 @@
+@DataSource[default@com.sonicle.webtop.tasks]
+
+-- ----------------------------
+-- Table structure for attachments
+-- ----------------------------
+CREATE TABLE "tasks"."attachments" (
+"attachment_id" varchar(36) NOT NULL,
+"task_id" int4 NOT NULL,
+"revision_timestamp" timestamptz(6) NOT NULL,
+"filename" varchar(255) NOT NULL,
+"size" int8 NOT NULL,
+"media_type" varchar(255)
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Indexes structure for table attachments
+-- ----------------------------
+CREATE INDEX "attachments_ak1" ON "tasks"."attachments" USING btree ("task_id");
+
+-- ----------------------------
+-- Primary Key structure for table attachments
+-- ----------------------------
+ALTER TABLE "tasks"."attachments" ADD PRIMARY KEY ("attachment_id");
@@ -1,17 +1,38 @@
 
 CREATE SCHEMA "tasks";
 
+-- ----------------------------
+-- Extension required by trigram indexes
+-- ----------------------------
+CREATE EXTENSION IF NOT EXISTS "pg_trgm";
+
 -- ----------------------------
 -- Sequence structure for seq_categories
 -- ----------------------------
 DROP SEQUENCE IF EXISTS "tasks"."seq_categories";
-CREATE SEQUENCE "tasks"."seq_categories";
+CREATE SEQUENCE "tasks"."seq_categories" INCREMENT 10;
 
 -- ----------------------------
 -- Sequence structure for seq_tasks
 -- ----------------------------
 DROP SEQUENCE IF EXISTS "tasks"."seq_tasks";
-CREATE SEQUENCE "tasks"."seq_tasks";
+CREATE SEQUENCE "tasks"."seq_tasks" INCREMENT 50;
+
+-- ----------------------------
+-- Table structure for attachments
+-- ----------------------------
+DROP TABLE IF EXISTS "tasks"."attachments";
+CREATE TABLE "tasks"."attachments" (
+"attachment_id" varchar(36) NOT NULL,
+"task_id" int4 NOT NULL,
+"revision_timestamp" timestamptz(6) NOT NULL,
+"filename" varchar(255) NOT NULL,
+"size" int8 NOT NULL,
+"media_type" varchar(255)
+)
+WITH (OIDS=FALSE)
+
+;
 
 -- ----------------------------
 -- Table structure for categories
@@ -49,6 +70,58 @@ WITH (OIDS=FALSE)
 
 ;
 
+-- ----------------------------
+-- Table structure for hierarchy
+-- ----------------------------
+DROP TABLE IF EXISTS "tasks"."hierarchy";
+CREATE TABLE "tasks"."hierarchy" (
+"ancestor_id" int4 NOT NULL,
+"descendant_id" int4 NOT NULL,
+"depth" int4 NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Table structure for moved_tasks
+-- ----------------------------
+DROP TABLE IF EXISTS "tasks"."moved_tasks";
+CREATE TABLE "tasks"."moved_tasks" (
+"task_id" int4 NOT NULL,
+"category_id" int4 NOT NULL,
+"revision_timestamp" timestamptz(6) NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Table structure for recurrences
+-- ----------------------------
+DROP TABLE IF EXISTS "tasks"."recurrences";
+CREATE TABLE "tasks"."recurrences" (
+"task_id" int4 NOT NULL,
+"rule" varchar(255) NOT NULL,
+"start_date" timestamptz(6) NOT NULL,
+"occurrence" int4 DEFAULT 0 NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
+-- ----------------------------
+-- Table structure for tags
+-- ----------------------------
+DROP TABLE IF EXISTS "tasks"."tags";
+CREATE TABLE "tasks"."tags" (
+"task_id" int4 NOT NULL,
+"tag" varchar(50) NOT NULL
+)
+WITH (OIDS=FALSE)
+
+;
+
 -- ----------------------------
 -- Table structure for tasks
 -- ----------------------------
@@ -70,7 +143,8 @@ CREATE TABLE "tasks"."tasks" (
 "status" varchar(15) NOT NULL,
 "completion_percentage" int2 NOT NULL,
 "reminder_date" timestamptz(6),
-"reminded_on" timestamptz(6)
+"reminded_on" timestamptz(6),
+"search_vector" tsvector
 )
 WITH (OIDS=FALSE)
 
@@ -80,6 +154,16 @@ WITH (OIDS=FALSE)
 -- Alter Sequences Owned By 
 -- ----------------------------
 
+-- ----------------------------
+-- Indexes structure for table attachments
+-- ----------------------------
+CREATE INDEX "attachments_ak1" ON "tasks"."attachments" USING btree ("task_id");
+
+-- ----------------------------
+-- Primary Key structure for table attachments
+-- ----------------------------
+ALTER TABLE "tasks"."attachments" ADD PRIMARY KEY ("attachment_id");
+
 -- ----------------------------
 -- Indexes structure for table categories
 -- ----------------------------
@@ -101,16 +185,65 @@ CREATE INDEX "category_props_ak1" ON "tasks"."category_props" USING btree ("cate
 -- ----------------------------
 ALTER TABLE "tasks"."category_props" ADD PRIMARY KEY ("domain_id", "user_id", "category_id");
 
+-- ----------------------------
+-- Indexes structure for table hierarchy
+-- ----------------------------
+CREATE INDEX "hierarchy_ak1" ON "tasks"."hierarchy" USING btree ("descendant_id", "depth");
+
+-- ----------------------------
+-- Primary Key structure for table hierarchy
+-- ----------------------------
+ALTER TABLE "tasks"."hierarchy" ADD PRIMARY KEY ("ancestor_id", "descendant_id");
+
+-- ----------------------------
+-- Indexes structure for table moved_tasks
+-- ----------------------------
+CREATE INDEX "moved_tasks_ak1" ON "tasks"."moved_tasks" USING btree ("category_id", "revision_timestamp", "task_id");
+
+-- ----------------------------
+-- Primary Key structure for table moved_tasks
+-- ----------------------------
+ALTER TABLE "tasks"."moved_tasks" ADD PRIMARY KEY ("task_id", "category_id");
+
+-- ----------------------------
+-- Primary Key structure for table recurrences
+-- ----------------------------
+ALTER TABLE "tasks"."recurrences" ADD PRIMARY KEY ("task_id");
+
+-- ----------------------------
+-- Indexes structure for table tags
+-- ----------------------------
+CREATE INDEX "tags_ak1" ON "tasks"."tags" USING btree ("tag");
+
+-- ----------------------------
+-- Primary Key structure for table tags
+-- ----------------------------
+ALTER TABLE "tasks"."tags" ADD PRIMARY KEY ("task_id", "tag");
+
 -- ----------------------------
 -- Indexes structure for table tasks
 -- ----------------------------
 CREATE INDEX "tasks_ak1" ON "tasks"."tasks" USING btree ("category_id", "revision_status", "revision_timestamp");
+CREATE INDEX "tasks_ak2" ON "tasks"."tasks" USING gin ("search_vector");
+CREATE INDEX "tasks_ak3" ON "tasks"."tasks" USING gin ("subject" gin_trgm_ops);
+CREATE INDEX "tasks_ak4" ON "tasks"."tasks" USING gin ("description" gin_trgm_ops);
+CREATE INDEX "tasks_ak5" ON "tasks"."tasks" USING btree ("category_id", "subject", "task_id") WHERE "revision_status" IN ('N', 'M');
+CREATE INDEX "tasks_ak6" ON "tasks"."tasks" USING btree ("category_id", "due_date") WHERE "revision_status" IN ('N', 'M') AND "due_date" IS NOT NULL;
+CREATE INDEX "tasks_ak7" ON "tasks"."tasks" USING btree ("reminder_date") WHERE "revision_status" IN ('N', 'M') AND "reminder_date" IS NOT NULL;
+CREATE INDEX "tasks_ak8" ON "tasks"."tasks" USING btree ("revision_timestamp") WHERE "revision_status" = 'D';
+CREATE INDEX "tasks_ak9" ON "tasks"."tasks" USING btree ("subject", "task_id") WHERE "revision_status" IN ('N', 'M');
 
 -- ----------------------------
 -- Primary Key structure for table tasks
 -- ----------------------------
 ALTER TABLE "tasks"."tasks" ADD PRIMARY KEY ("task_id");
 
+-- ----------------------------
+-- Triggers structure for table tasks
+-- ----------------------------
+CREATE TRIGGER "search_vector_trg" BEFORE INSERT OR UPDATE OF "subject", "description" ON "tasks"."tasks"
+FOR EACH ROW EXECUTE PROCEDURE tsvector_update_trigger("search_vector", 'pg_catalog.simple', "subject", "description");
+
 -- ----------------------------
 -- Align service version
 -- ----------------------------